@@ -0,0 +1,74 @@
+package benchmarks;
+
+
+import calculators.ArrayOperations;
+import calculators.Calculator;
+import exceptions.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of the element-wise array operations, compared with calculating every element with a Calculator.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayOperationsBenchmark {
+
+    @Param({"+", "*", "/"})
+    public String operator;
+
+    @Param({"4096"})
+    public int length;
+
+    private char op;
+    private double[] a;
+    private double[] b;
+    private double[] out;
+    private long[] mask;
+    private Calculator calculator;
+
+    @Setup
+    public void setUp() {
+        op = operator.charAt(0);
+        a = new double[length];
+        b = new double[length];
+        out = new double[length];
+        mask = new long[ArrayOperations.maskLength(length)];
+
+        Random random = new Random(42);
+        for(int i = 0; i < length; i++) {
+            a[i] = random.nextDouble();
+            b[i] = random.nextDouble() + 1.0;
+        }
+
+        calculator = new Calculator();
+    }
+
+
+    @Benchmark
+    public double[] arrays() throws NotSupportedOperationException, NullValueException {
+        ArrayOperations.calculate(a, b, out, op, mask);
+        return out;
+    }
+
+    @Benchmark
+    public double[] scalar() throws NotSupportedOperationException, DivisionByZeroException, NullValueException {
+        for(int i = 0; i < length; i++) {
+            calculator.setCurrentValue(a[i]);
+            calculator.calculate(b[i], op);
+            out[i] = calculator.getCurrentValueAsDouble();
+        }
+
+        return out;
+    }
+}
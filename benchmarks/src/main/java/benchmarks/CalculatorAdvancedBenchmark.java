@@ -0,0 +1,78 @@
+package benchmarks;
+
+
+import calculators.CalculatorAdvanced;
+import exceptions.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of the advanced operations of CalculatorAdvanced: factorial, power actions and
+ * the Armstrong and perfect number checks, for numbers of different magnitudes.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorAdvancedBenchmark {
+
+    /**
+     * Calculator used for factorial and power actions, whose value is set before every action.
+     */
+    @State(Scope.Thread)
+    public static class ActionState {
+        @Param({"5", "20", "170"})
+        public double value;
+
+        @Param({"!", "2", "9"})
+        public String action;
+
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        char act;
+
+        @Setup
+        public void setUp() {
+            act = action.charAt(0);
+        }
+    }
+
+    /**
+     * Calculator whose value is checked for characteristics.
+     */
+    @State(Scope.Thread)
+    public static class CharacteristicState {
+        @Param({"153", "8128", "33550336", "4679307774", "137438691328", "2305843008139952128"})
+        public long value;
+
+        @Param({"A", "P"})
+        public String characteristic;
+
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        char check;
+
+        @Setup
+        public void setUp() throws Exception {
+            check = characteristic.charAt(0);
+            calculator.setCurrentValue((double) value);
+        }
+    }
+
+
+    @Benchmark
+    public double calculateAdvanced(ActionState state) throws NotSupportedOperationException, NumberNotInAreaException, NullValueException {
+        state.calculator.setCurrentValue(state.value);
+        state.calculator.calculateAdvanced(state.act);
+        return state.calculator.getCurrentValueAsDouble();
+    }
+
+    @Benchmark
+    public Boolean hasCharacteristic(CharacteristicState state) throws NotSupportedOperationException, NumberNotInAreaException {
+        return state.calculator.hasCharacteristic(state.check);
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+
+import calculators.Calculator;
+import exceptions.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of the basic arithmetic operations of Calculator, for every operator.
+ * Every operation is followed by its inverse, an addition of the negated operand or a multiplication
+ * by the reciprocal, so the current value stays close to 1.0 and never reaches infinity or subnormal values,
+ * which are much slower. The current value is also reset before every iteration.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    @Param({"+", "-", "*", "/"})
+    public String operator;
+
+    private char op;
+    private double operand;
+    private double inverse;
+    private Double boxedOperand;
+    private Double boxedInverse;
+    private double[] values;
+    private Calculator calculator;
+
+    @Setup
+    public void setUp() {
+        op = operator.charAt(0);
+        operand = 1.0000001;
+        inverse = op == '+' || op == '-' ? -operand : 1.0 / operand;
+        boxedOperand = operand;
+        boxedInverse = inverse;
+        values = new double[1024];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? operand : inverse;
+        }
+
+        calculator = new Calculator();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetValue() throws NullValueException {
+        calculator.setCurrentValue(1.0);
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public double calculatePrimitive() throws NotSupportedOperationException, DivisionByZeroException {
+        calculator.calculate(operand, op);
+        calculator.calculate(inverse, op);
+        return calculator.getCurrentValueAsDouble();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Double calculateBoxed() throws NotSupportedOperationException, DivisionByZeroException, NullValueException {
+        calculator.calculate(boxedOperand, op);
+        calculator.calculate(boxedInverse, op);
+        return calculator.getCurrentValue();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public double fold() throws NotSupportedOperationException, NullValueException {
+        calculator.fold(values, op);
+        return calculator.getCurrentValueAsDouble();
+    }
+}
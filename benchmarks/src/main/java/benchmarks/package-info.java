@@ -0,0 +1,5 @@
+/**
+ * JMH benchmarks for the hot paths of everything in <b>calculators</b>.
+ */
+
+package benchmarks;
@@ -0,0 +1,181 @@
+package calculators;
+
+
+import exceptions.NumberNotInAreaException;
+
+
+/**
+ * Checks consecutive numbers for being Armstrong numbers. The digits of the first number are raised
+ * to the powers once, and for every next number only the digits that changed are looked up
+ * in a table of digit powers, so most numbers cost one table lookup.
+ *<br>
+ * The sum of digit powers is kept exactly in two longs, because for 19 digits it can be bigger than 2^64.
+ * For example, all Armstrong numbers from 1 to 10^7 are found with:<br>
+ * <i>ArmstrongChecker checker = new ArmstrongChecker(1);<br>
+ * do { if(checker.isArmstrong()) print(checker.getValue()); } while(checker.next() &lt; 10_000_000);</i>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class ArmstrongChecker {
+    /**
+     * POWERS[d][k] is k raised to the power of d, for all digit counts of a long.
+     */
+    static final long[][] POWERS = new long[20][10];
+
+    /**
+     * POWERS_OF_TEN[d] is 10 raised to the power of d, for all digit counts of a long.
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        for(int k = 0; k < 10; k++) {
+            long power = 1;
+
+            for(int d = 0; d < POWERS.length; d++) {
+                POWERS[d][k] = power;
+                power *= k;
+            }
+        }
+
+        POWERS_OF_TEN[0] = 1;
+        for(int d = 1; d < POWERS_OF_TEN.length; d++) {
+            POWERS_OF_TEN[d] = POWERS_OF_TEN[d - 1] * 10;
+        }
+    }
+
+    private final int[] digits = new int[19];
+    private int numDigits;
+    private long[] powers;
+    private long value;
+    private long low;
+    private long high;
+
+
+    /**
+     * Initializes a new checker positioned at <b>start</b>.
+     *
+     * @param start The first number that will be checked, at least 1.
+     * @throws NumberNotInAreaException If <b>start</b> is less than 1.
+     * @since 1.1
+     */
+    public ArmstrongChecker(long start) throws NumberNotInAreaException {
+        if(start < 1) {
+            throw new NumberNotInAreaException();
+        }
+
+        this.value = start;
+        this.numDigits = numDigits(start);
+        this.powers = POWERS[numDigits];
+
+        long temp = start;
+        for(int i = 0; i < numDigits; i++, temp /= 10) {
+            digits[i] = (int) (temp % 10);
+
+            long sum = low + powers[digits[i]];
+            if(Long.compareUnsigned(sum, low) < 0) high++;
+            low = sum;
+        }
+    }
+
+
+    /**
+     * Checks if the number is an Armstrong number, using the table of digit powers.
+     * The sum of digit powers is compared while it is accumulated, so it never overflows.
+     *
+     * @param number The number that will be checked.
+     * @return <i>true</i> if the number <b>is</b> an Armstrong number,<br>
+     *         <i>false</i> if the number <b>is not</b> an Armstrong number or is less than 1.
+     * @since 1.1
+     */
+    public static boolean isArmstrong(long number) {
+        if(number < 1) {
+            return false;
+        }
+
+        long[] powers = POWERS[numDigits(number)];
+        long sum = 0;
+
+        for(long temp = number; temp != 0; temp /= 10) {
+            // The sum is at most number before adding a power smaller than 2^61, so it can only overflow to a negative value.
+            sum += powers[(int) (temp % 10)];
+            if(sum < 0 || sum > number) {
+                return false;
+            }
+        }
+
+        return sum == number;
+    }
+
+
+    /**
+     * Getter for the number that is being checked.
+     *
+     * @return The number at which the checker is positioned.
+     * @since 1.1
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Checks if the number at which the checker is positioned is an Armstrong number.
+     *
+     * @return <i>true</i> if {@link #getValue()} <b>is</b> an Armstrong number.
+     * @since 1.1
+     */
+    public boolean isArmstrong() {
+        return low == value && high == 0;
+    }
+
+    /**
+     * Moves the checker to the next number, updating the sum of digit powers only for the digits that changed.
+     *
+     * @return The new value of the checker.
+     * @throws ArithmeticException If the checker is positioned at Long.MAX_VALUE.
+     * @since 1.1
+     */
+    public long next() {
+        if(value == Long.MAX_VALUE) {
+            throw new ArithmeticException("The next number does not fit in a long!");
+        }
+
+        int i = 0;
+        for(; i < numDigits && digits[i] == 9; i++) {
+            digits[i] = 0;
+            long sum = low - powers[9];
+            if(Long.compareUnsigned(sum, low) > 0) high--;
+            low = sum;
+        }
+
+        if(i == numDigits) {
+            // 99...9 + 1 = 100...0, whose sum of digit powers is 1 for any number of digits.
+            digits[numDigits++] = 1;
+            powers = POWERS[numDigits];
+            low = 1;
+            high = 0;
+        }
+        else {
+            long sum = low + (powers[digits[i] + 1] - powers[digits[i]]);
+            if(Long.compareUnsigned(sum, low) < 0) high++;
+            low = sum;
+            digits[i]++;
+        }
+
+        return ++value;
+    }
+
+
+    /**
+     * Counts the digits of a positive number by comparing it with the powers of ten.
+     */
+    private static int numDigits(long number) {
+        int d = 1;
+
+        while(d < POWERS_OF_TEN.length && number >= POWERS_OF_TEN[d]) {
+            d++;
+        }
+
+        return d;
+    }
+}
@@ -0,0 +1,303 @@
+package calculators;
+
+
+import exceptions.*;
+
+
+/**
+ * Element-wise versions of the four basic arithmetic operations of {@link Calculator}, which apply the operator
+ * to whole arrays at once: <i>out[i] = a[i] operator b[i]</i>, or <i>out[i] = a[i] operator b</i> for a single value.
+ *<br>
+ * -The loops have no calls and, except for division with zero divisors, no branches in their bodies,
+ * so the JIT compiler turns them into SIMD instructions.<br>
+ * -Division does not throw when it divides by zero. Like {@link Calculator}, which keeps its current value,
+ * the element of the result is set to the first operand, and the zero divisors are reported in a bit mask.<br>
+ * -The output array can be the same array as one of the inputs.<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class ArrayOperations {
+
+    private ArrayOperations() {
+    }
+
+
+    /**
+     * Calculates <i>out[i] = a[i] + b[i]</i>.
+     *
+     * @param a The first operands.
+     * @param b The second operands.
+     * @param out The array for the results.
+     * @throws NullValueException If any of the arrays is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public static void add(double[] a, double[] b, double[] out) throws NullValueException {
+        int length = check(a, b, out);
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Calculates <i>out[i] = a[i] - b[i]</i>.
+     *
+     * @param a The first operands.
+     * @param b The second operands.
+     * @param out The array for the results.
+     * @throws NullValueException If any of the arrays is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public static void sub(double[] a, double[] b, double[] out) throws NullValueException {
+        int length = check(a, b, out);
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * Calculates <i>out[i] = a[i] * b[i]</i>.
+     *
+     * @param a The first operands.
+     * @param b The second operands.
+     * @param out The array for the results.
+     * @throws NullValueException If any of the arrays is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public static void mul(double[] a, double[] b, double[] out) throws NullValueException {
+        int length = check(a, b, out);
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * Calculates <i>out[i] = a[i] / b[i]</i>. Where <i>b[i]</i> is zero, <i>out[i]</i> is set to <i>a[i]</i>
+     * and bit <i>i</i> of <b>zeroMask</b> is set.
+     *
+     * @param a The first operands.
+     * @param b The second operands.
+     * @param out The array for the results.
+     * @param zeroMask The bit mask of zero divisors, where element <i>i / 64</i> holds bit <i>i % 64</i>,
+     *                 like {@link java.util.BitSet#valueOf(long[])}. It must have at least
+     *                 {@link #maskLength(int)} elements, which are overwritten. Can be null.
+     * @return The number of zero divisors.
+     * @throws NullValueException If any of the arrays, except <b>zeroMask</b>, is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length, or <b>zeroMask</b> is too short.
+     * @since 1.1
+     */
+    public static int div(double[] a, double[] b, double[] out, long[] zeroMask) throws NullValueException {
+        int length = check(a, b, out);
+        checkMask(zeroMask, length);
+
+        // The zero divisors are found first, so the common case without them is a loop without branches.
+        // Every element is read before it is written, so the output can be one of the inputs.
+        int zeros = mask(b, 0.0, length, zeroMask);
+
+        if(zeros == 0) {
+            for(int i = 0; i < length; i++) {
+                out[i] = a[i] / b[i];
+            }
+        }
+        else {
+            for(int i = 0; i < length; i++) {
+                out[i] = b[i] == 0.0 ? a[i] : a[i] / b[i];
+            }
+        }
+
+        return zeros;
+    }
+
+
+    /**
+     * Calculates <i>out[i] = a[i] + b</i>.
+     *
+     * @param a The first operands.
+     * @param b The second operand of every element.
+     * @param out The array for the results.
+     * @throws NullValueException If any of the arrays is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public static void add(double[] a, double b, double[] out) throws NullValueException {
+        int length = check(a, out);
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] + b;
+        }
+    }
+
+    /**
+     * Calculates <i>out[i] = a[i] - b</i>.
+     *
+     * @param a The first operands.
+     * @param b The second operand of every element.
+     * @param out The array for the results.
+     * @throws NullValueException If any of the arrays is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public static void sub(double[] a, double b, double[] out) throws NullValueException {
+        int length = check(a, out);
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] - b;
+        }
+    }
+
+    /**
+     * Calculates <i>out[i] = a[i] * b</i>.
+     *
+     * @param a The first operands.
+     * @param b The second operand of every element.
+     * @param out The array for the results.
+     * @throws NullValueException If any of the arrays is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public static void mul(double[] a, double b, double[] out) throws NullValueException {
+        int length = check(a, out);
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] * b;
+        }
+    }
+
+    /**
+     * Calculates <i>out[i] = a[i] / b</i>. If <b>b</b> is zero, <b>a</b> is copied to <b>out</b>
+     * and all bits of <b>zeroMask</b> are set.
+     *
+     * @param a The first operands.
+     * @param b The second operand of every element.
+     * @param out The array for the results.
+     * @param zeroMask The bit mask of zero divisors, as in {@link #div(double[], double[], double[], long[])}. Can be null.
+     * @return The number of zero divisors, which is either 0 or the length of the arrays.
+     * @throws NullValueException If any of the arrays, except <b>zeroMask</b>, is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length, or <b>zeroMask</b> is too short.
+     * @since 1.1
+     */
+    public static int div(double[] a, double b, double[] out, long[] zeroMask) throws NullValueException {
+        int length = check(a, out);
+        checkMask(zeroMask, length);
+
+        int zeros = mask(null, b, length, zeroMask);
+        if(zeros > 0) {
+            System.arraycopy(a, 0, out, 0, length);
+            return zeros;
+        }
+
+        for(int i = 0; i < length; i++) {
+            out[i] = a[i] / b;
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Applies the operator element-wise, like {@link Calculator#calculate(double, char)} applies it to one value.
+     *
+     * @param a The first operands.
+     * @param b The second operands.
+     * @param out The array for the results.
+     * @param operator The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @param zeroMask The bit mask of zero divisors, as in {@link #div(double[], double[], double[], long[])}.
+     *                 Only used if <b>operator</b> is '/'. Can be null.
+     * @return The number of zero divisors.
+     * @throws NotSupportedOperationException If <b>operator</b> is not a valid value.
+     * @throws NullValueException If any of the arrays, except <b>zeroMask</b>, is null.
+     * @throws IllegalArgumentException If the arrays are not of the same length, or <b>zeroMask</b> is too short.
+     * @since 1.1
+     */
+    public static int calculate(double[] a, double[] b, double[] out, char operator, long[] zeroMask) throws NotSupportedOperationException, NullValueException {
+        if(operator == '+') {
+            add(a, b, out);
+        }
+        else if(operator == '-') {
+            sub(a, b, out);
+        }
+        else if(operator == '*') {
+            mul(a, b, out);
+        }
+        else if(operator == '/') {
+            return div(a, b, out, zeroMask);
+        }
+        else {
+            throw new NotSupportedOperationException("You can only use +, -, * or / in Calculator!");
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns the number of elements of a bit mask for arrays of the given length.
+     *
+     * @param length The length of the arrays.
+     * @return The number of longs needed for one bit per element.
+     * @since 1.1
+     */
+    public static int maskLength(int length) {
+        return (length + Long.SIZE - 1) >>> 6;
+    }
+
+
+    private static int check(double[] a, double[] b, double[] out) throws NullValueException {
+        if(a == null || b == null || out == null) {
+            throw new NullValueException();
+        }
+        if(a.length != b.length || a.length != out.length) {
+            throw new IllegalArgumentException("The arrays must be of the same length!");
+        }
+
+        return a.length;
+    }
+
+    private static int check(double[] a, double[] out) throws NullValueException {
+        if(a == null || out == null) {
+            throw new NullValueException();
+        }
+        if(a.length != out.length) {
+            throw new IllegalArgumentException("The arrays must be of the same length!");
+        }
+
+        return a.length;
+    }
+
+    private static void checkMask(long[] zeroMask, int length) {
+        if(zeroMask != null && zeroMask.length < maskLength(length)) {
+            throw new IllegalArgumentException("The mask must have at least " + maskLength(length) + " elements!");
+        }
+    }
+
+    /**
+     * Fills the mask with the zero divisors and returns their number. If <b>divisors</b> is null,
+     * every element has the divisor <b>divisor</b>.
+     */
+    private static int mask(double[] divisors, double divisor, int length, long[] zeroMask) {
+        int zeros = 0;
+
+        for(int word = 0; word < maskLength(length); word++) {
+            long bits = 0;
+            int from = word << 6;
+            int to = Math.min(from + Long.SIZE, length);
+
+            for(int i = from; i < to; i++) {
+                double value = divisors == null ? divisor : divisors[i];
+                bits |= (value == 0.0 ? 1L : 0L) << (i - from);
+            }
+
+            zeros += Long.bitCount(bits);
+            if(zeroMask != null) {
+                zeroMask[word] = bits;
+            }
+        }
+
+        return zeros;
+    }
+}
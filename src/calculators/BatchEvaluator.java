@@ -0,0 +1,337 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Feeds a file of records through {@link Calculator#calculate(double, char)} and writes
+ * the current value after every record to a channel.
+ *<br>
+ * -Every line of the file is one record written as <i>value,operator</i>, for example <i>2.5,*</i>.
+ * Whitespace around both fields is ignored and so are empty lines. Lines can end with "\n" or "\r\n".<br>
+ * -The results are written as 8-byte big-endian doubles, one for every record.<br>
+ *<br>
+ * The file is memory-mapped in windows of a fixed size and the records are parsed directly from the mapped bytes,
+ * so files of any size are processed in constant memory. Numbers whose digits fit in 53 bits and whose
+ * decimal exponent is at most 22 are converted with one exact floating-point multiplication or division
+ * (Clinger's fast path); all other numbers are converted with {@link Double#parseDouble(String)}.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class BatchEvaluator {
+    /**
+     * Size of the mapped windows used by evaluators that are created without one.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    /**
+     * Size of the buffer for the results, which is written to the output channel whenever it is full.
+     */
+    private static final int OUTPUT_SIZE = 1 << 13;
+
+    /**
+     * Powers of ten that are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Calculator calculator;
+    private final int windowSize;
+
+
+    /**
+     * Initializes a new BatchEvaluator which maps the input in windows of {@link #DEFAULT_WINDOW_SIZE} bytes.
+     *
+     * @param calculator The calculator that calculates the records.
+     * @throws NullValueException If <b>calculator</b> is null.
+     * @since 1.1
+     */
+    public BatchEvaluator(Calculator calculator) throws NullValueException {
+        this(calculator, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Initializes a new BatchEvaluator.
+     *
+     * @param calculator The calculator that calculates the records.
+     * @param windowSize The size of the mapped windows in bytes. Every line must fit in one window.
+     * @throws NullValueException If <b>calculator</b> is null.
+     * @throws IllegalArgumentException If <b>windowSize</b> is less than 1.
+     * @since 1.1
+     */
+    public BatchEvaluator(Calculator calculator, int windowSize) throws NullValueException {
+        if(calculator == null) {
+            throw new NullValueException();
+        }
+        if(windowSize < 1) {
+            throw new IllegalArgumentException("The window size must be at least 1!");
+        }
+
+        this.calculator = calculator;
+        this.windowSize = windowSize;
+    }
+
+
+    /**
+     * Calculates all records of the file. When a record can not be calculated, the results of the previous
+     * records are written to the output and the current value of the calculator is the one after the last of them.
+     *
+     * @param input The file with the records.
+     * @param output The channel to which the results are written.
+     * @return The number of calculated records.
+     * @throws IOException If the file can not be read, the output can not be written or a line does not fit in a window.
+     * @throws NotSupportedOperationException If a record has an operator that is not supported.
+     * @throws DivisionByZeroException If a record divides by zero.
+     * @throws NumberFormatException If a line is not a valid record.
+     * @throws ArithmeticException If a registered binary operator does not accept the operands of a record.
+     * @since 1.1
+     */
+    public long evaluate(Path input, WritableByteChannel output) throws IOException, NotSupportedOperationException, DivisionByZeroException {
+        ByteBuffer results = ByteBuffer.allocateDirect(OUTPUT_SIZE);
+        long records = 0;
+        long line = 0;
+
+        try(FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            for(long position = 0; position < size; ) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int start = 0;
+
+                while(start < length) {
+                    int end = indexOf(window, (byte) '\n', start, length);
+
+                    if(end < 0) {
+                        if(!last) {
+                            break;
+                        }
+                        end = length;
+                    }
+
+                    line++;
+                    if(calculate(window, start, end, line)) {
+                        records++;
+                        results.putDouble(calculator.getCurrentValueAsDouble());
+
+                        if(!results.hasRemaining()) {
+                            write(results, output);
+                        }
+                    }
+
+                    start = end + 1;
+                }
+
+                if(start == 0) {
+                    throw new IOException("Line " + (line + 1) + " does not fit in a window of " + windowSize + " bytes!");
+                }
+
+                position = last ? size : position + start;
+            }
+        }
+        catch(Throwable e) {
+            try {
+                write(results, output);
+            }
+            catch(IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        write(results, output);
+        return records;
+    }
+
+
+    /**
+     * Parses the record and calculates it.
+     *
+     * @return <i>false</i> if the line is empty.
+     */
+    private boolean calculate(ByteBuffer buffer, int from, int to, long line) throws NotSupportedOperationException, DivisionByZeroException {
+        int comma = indexOf(buffer, (byte) ',', from, to);
+
+        if(comma < 0) {
+            if(isBlank(buffer, from, to)) {
+                return false;
+            }
+
+            throw new NumberFormatException("Line " + line + ": expected value,operator");
+        }
+
+        double value = parseDouble(buffer, from, comma, line);
+        char operator = parseOperator(buffer, comma + 1, to, line);
+        int status = calculator.tryCalculate(value, operator);
+
+        if(status == Status.DIVISION_BY_ZERO) {
+            throw new DivisionByZeroException("Line " + line + ": You can not divide by zero!");
+        }
+        else if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw new NotSupportedOperationException("Line " + line + ": " + Calculator.NOT_SUPPORTED_OPERATION_MESSAGE);
+        }
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw new ArithmeticException("Line " + line + ": The operands are not in the area of the operator " + operator + "!");
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses a decimal number from the bytes in-between <b>from</b> (inclusive) and <b>to</b> (exclusive).
+     */
+    private static double parseDouble(ByteBuffer buffer, int from, int to, long line) {
+        while(from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+        while(to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+
+        int i = from;
+        boolean negative = false;
+
+        if(i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean any = false;
+
+        for(; i < to && isDigit(buffer.get(i)); i++) {
+            any = true;
+            if(digits < 18) {
+                mantissa = mantissa * 10 + (buffer.get(i) - '0');
+                digits += mantissa != 0 ? 1 : 0;
+            }
+            else {
+                exact = false;
+            }
+        }
+
+        if(i < to && buffer.get(i) == '.') {
+            for(i++; i < to && isDigit(buffer.get(i)); i++) {
+                any = true;
+                if(digits < 18) {
+                    mantissa = mantissa * 10 + (buffer.get(i) - '0');
+                    digits += mantissa != 0 ? 1 : 0;
+                    exponent--;
+                }
+                else {
+                    exact = false;
+                }
+            }
+        }
+
+        if(any && i < to && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+
+            if(i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+
+            int value = 0;
+            boolean exponentDigits = false;
+            for(; i < to && isDigit(buffer.get(i)); i++) {
+                exponentDigits = true;
+                value = Math.min(value * 10 + (buffer.get(i) - '0'), 100000);
+            }
+
+            any = exponentDigits;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if(any && i == to && exact && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+        catch(NumberFormatException e) {
+            throw new NumberFormatException("Line " + line + ": " + e.getMessage());
+        }
+    }
+
+    private static char parseOperator(ByteBuffer buffer, int from, int to, long line) {
+        while(from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+        while(to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+
+        if(to - from != 1) {
+            throw new NumberFormatException("Line " + line + ": expected one operator character");
+        }
+
+        return (char) (buffer.get(from) & 0xFF);
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for(int i = from; i < to; i++) {
+            if(buffer.get(i) == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        for(int i = from; i < to; i++) {
+            if(!isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Writes the results to the output. The results that could not be written stay in the buffer.
+     */
+    private static void write(ByteBuffer results, WritableByteChannel output) throws IOException {
+        results.flip();
+        try {
+            while(results.hasRemaining()) {
+                output.write(results);
+            }
+        }
+        finally {
+            results.compact();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+
+/**
+ * Calculator with the same four basic arithmetic operations as {@link Calculator}, which works with
+ * decimal numbers of arbitrary precision instead of doubles, so long chains of calculations do not drift.
+ * Every result is rounded according to the calculator's {@link MathContext}.
+ *<br>
+ * While the current value fits, it is kept as a long unscaled value and a scale
+ * (the value is <i>unscaled * 10^-scale</i>), and addition, subtraction and multiplication
+ * are done with long arithmetic. When a result would overflow, or needs to be rounded, the value
+ * is promoted to a BigDecimal, and when it fits again it is demoted back.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class BigDecimalCalculator {
+    /**
+     * Math context used by calculators that are created without one.
+     */
+    public static final MathContext DEFAULT_MATH_CONTEXT = MathContext.DECIMAL128;
+
+    /**
+     * Powers of ten that fit in a long.
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Math context used to round every result.
+     */
+    protected MathContext mathContext;
+
+    /**
+     * Unscaled value of the current value, while it is not promoted.
+     */
+    private long unscaled;
+
+    /**
+     * Scale of the current value, while it is not promoted.
+     */
+    private int scale;
+
+    /**
+     * The current value when it does not fit in a long unscaled value, otherwise null.
+     */
+    private BigDecimal promoted;
+
+
+    /**
+     * Initializes a new BigDecimalCalculator object with a default current value set to 0
+     * and the {@link #DEFAULT_MATH_CONTEXT}.
+     * @since 1.1
+     */
+    public BigDecimalCalculator() {
+        this(DEFAULT_MATH_CONTEXT);
+    }
+
+    /**
+     * Initializes a new BigDecimalCalculator object with a default current value set to 0.
+     *
+     * @param mathContext The math context used to round every result.
+     * @throws IllegalArgumentException If <b>mathContext</b> is null.
+     * @since 1.1
+     */
+    public BigDecimalCalculator(MathContext mathContext) {
+        setMathContext(mathContext);
+    }
+
+
+    /**
+     * Getter for the current value.
+     *
+     * @return The current value.
+     * @since 1.1
+     */
+    public BigDecimal getCurrentValue() {
+        return promoted != null ? promoted : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * Setter for the current value. Value should not be null. It is rounded according to the math context.
+     *
+     * @param value  The value that is used to set the current value to.
+     * @throws NullValueException  If the passed parameter is null.
+     * @since 1.1
+     */
+    public void setCurrentValue(BigDecimal value) throws NullValueException {
+        if(value == null) throw new NullValueException("Could not set currentValue to null!");
+        store(value.round(mathContext));
+    }
+
+    /**
+     * Checks if the current value is kept as a BigDecimal, because it does not fit in a long unscaled value.
+     *
+     * @return <i>true</i> if the current value is promoted to a BigDecimal.
+     * @since 1.1
+     */
+    public boolean isPromoted() {
+        return promoted != null;
+    }
+
+    /**
+     * Getter for the math context.
+     *
+     * @return The math context used to round every result.
+     * @since 1.1
+     */
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * Setter for the math context. The current value is not rounded until the next calculation.
+     *
+     * @param mathContext The math context used to round every result.
+     * @throws IllegalArgumentException If <b>mathContext</b> is null.
+     * @since 1.1
+     */
+    public void setMathContext(MathContext mathContext) {
+        if(mathContext == null) {
+            throw new IllegalArgumentException("The math context can not be null!");
+        }
+
+        this.mathContext = mathContext;
+    }
+
+
+    /**
+     * Provides four basic arithmetic operations: addition, subtraction, multiplication and division.
+     * The resulting value is rounded and set to <b>currentValue</b>.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
+     * @throws NullValueException  If <b>value</b> is null.
+     * @throws ArithmeticException  If the exact quotient has an infinite decimal expansion and the math context
+     *                              has unlimited precision.
+     * @since 1.1
+     */
+    public void calculate(BigDecimal value, char operator) throws NotSupportedOperationException, DivisionByZeroException, NullValueException {
+        if(value == null) {
+            throw new NullValueException();
+        }
+
+        if(value.precision() <= 18) {
+            calculate(value.unscaledValue().longValue(), value.scale(), operator);
+        }
+        else {
+            calculateSlow(value, operator);
+        }
+    }
+
+    /**
+     * Same as {@link #calculate(BigDecimal, char)}, but the operand is passed as an unscaled value and a scale,
+     * so while the current value fits in a long, no objects are allocated.
+     *
+     * @param unscaledValue  The unscaled value of the second operand.
+     * @param scale  The scale of the second operand, which is <i>unscaledValue * 10^-scale</i>.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>unscaledValue</b> is zero and <b>operator</b> is '/'.
+     * @since 1.1
+     */
+    public void calculate(long unscaledValue, int scale, char operator) throws NotSupportedOperationException, DivisionByZeroException {
+        if(operator != '+' && operator != '-' && operator != '*' && operator != '/') {
+            throw new NotSupportedOperationException("You can only use +, -, * or / in Calculator!");
+        }
+        if(operator == '/' && unscaledValue == 0) {
+            throw new DivisionByZeroException("You can not divide by zero!");
+        }
+
+        if(promoted == null && operator != '/' && calculateFast(unscaledValue, scale, operator)) {
+            return;
+        }
+
+        calculateSlow(BigDecimal.valueOf(unscaledValue, scale), operator);
+    }
+
+
+    /**
+     * Stores the value, demoting it to a long unscaled value if it fits.
+     *
+     * @param value The new current value, already rounded.
+     */
+    protected void store(BigDecimal value) {
+        if(value.unscaledValue().bitLength() < Long.SIZE) {
+            unscaled = value.unscaledValue().longValue();
+            scale = value.scale();
+            promoted = null;
+        }
+        else {
+            promoted = value;
+        }
+    }
+
+
+    /**
+     * Calculates with long arithmetic.
+     *
+     * @return <i>false</i> if the result does not fit or needs rounding, and the current value was not changed.
+     */
+    private boolean calculateFast(long value, int valueScale, char operator) {
+        long resultUnscaled;
+        int resultScale;
+
+        try {
+            if(operator == '*') {
+                resultUnscaled = Math.multiplyExact(unscaled, value);
+                resultScale = Math.addExact(scale, valueScale);
+            }
+            else {
+                long left = unscaled;
+                long right = operator == '-' ? Math.negateExact(value) : value;
+                resultScale = Math.max(scale, valueScale);
+
+                if(scale != resultScale) {
+                    left = Math.multiplyExact(left, powerOfTen(resultScale - scale));
+                }
+                if(valueScale != resultScale) {
+                    right = Math.multiplyExact(right, powerOfTen(resultScale - valueScale));
+                }
+
+                resultUnscaled = Math.addExact(left, right);
+            }
+        }
+        catch(ArithmeticException e) {
+            return false;
+        }
+
+        if(mathContext.getPrecision() != 0 && digits(resultUnscaled) > mathContext.getPrecision()) {
+            return false;
+        }
+
+        unscaled = resultUnscaled;
+        scale = resultScale;
+        return true;
+    }
+
+    private void calculateSlow(BigDecimal value, char operator) throws NotSupportedOperationException, DivisionByZeroException {
+        BigDecimal current = getCurrentValue();
+        BigDecimal result;
+
+        if(operator == '+') {
+            result = current.add(value, mathContext);
+        }
+        else if(operator == '-') {
+            result = current.subtract(value, mathContext);
+        }
+        else if(operator == '*') {
+            result = current.multiply(value, mathContext);
+        }
+        else if(operator == '/') {
+            if(value.signum() == 0) {
+                throw new DivisionByZeroException("You can not divide by zero!");
+            }
+
+            result = current.divide(value, mathContext);
+        }
+        else {
+            throw new NotSupportedOperationException("You can only use +, -, * or / in Calculator!");
+        }
+
+        store(result);
+    }
+
+    /**
+     * Returns 10^exponent, or throws ArithmeticException if it does not fit in a long.
+     */
+    private static long powerOfTen(int exponent) {
+        if(exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException();
+        }
+
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Returns the number of decimal digits of the value.
+     */
+    private static int digits(long value) {
+        if(value == Long.MIN_VALUE) {
+            return 19;
+        }
+
+        long absolute = Math.abs(value);
+        int digits = 1;
+
+        while(digits < POWERS_OF_TEN.length && absolute >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+
+        return digits;
+    }
+}
@@ -0,0 +1,151 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+
+/**
+ * Calculator with the same advanced operations as {@link CalculatorAdvanced}, which works with
+ * decimal numbers of arbitrary precision. The results are rounded according to the calculator's {@link MathContext},
+ * so the factorial is not limited to {@link CalculatorAdvanced#MAX_FACTORIAL}. With a limited precision
+ * the factorial is limited to {@link #MAX_FACTORIAL}, and with an unlimited precision it is calculated exactly
+ * and limited to {@link CalculatorAdvanced#MAX_FACTORIAL_EXACT}.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class BigDecimalCalculatorAdvanced extends BigDecimalCalculator {
+    /**
+     * The biggest number whose factorial is calculated with a limited precision.
+     */
+    public static final int MAX_FACTORIAL = 1_000_000;
+
+    /**
+     * Number of digits kept in the partial products of a factorial in addition to the precision,
+     * so that their rounding errors do not reach the rounded result.
+     */
+    private static final int GUARD_DIGITS = 16;
+
+    private static final BigDecimal MAX_FACTORIAL_VALUE = BigDecimal.valueOf(MAX_FACTORIAL + 1L);
+    private static final BigDecimal MAX_LONG = BigDecimal.valueOf(Long.MAX_VALUE);
+
+
+    /**
+     * Initializes a new BigDecimalCalculatorAdvanced object with a default current value set to 0
+     * and the {@link #DEFAULT_MATH_CONTEXT}.
+     * @since 1.1
+     */
+    public BigDecimalCalculatorAdvanced() {
+        super();
+    }
+
+    /**
+     * Initializes a new BigDecimalCalculatorAdvanced object with a default current value set to 0.
+     *
+     * @param mathContext The math context used to round every result.
+     * @throws IllegalArgumentException If <b>mathContext</b> is null.
+     * @since 1.1
+     */
+    public BigDecimalCalculatorAdvanced(MathContext mathContext) {
+        super(mathContext);
+    }
+
+
+    /**
+     * Performs the same advanced calculations as {@link CalculatorAdvanced#calculateAdvanced(char)}.
+     * The resulting value is rounded and set to the current value.
+     *
+     * @param action The operator that is used for calculation. Valid values are '!' for factorial
+     *               and '0' to '9' for calculating the n-th power of the whole part of the current value.
+     * @throws NotSupportedOperationException If <b>action</b> is not a valid value.
+     * @throws NumberNotInAreaException If the current value is negative or bigger than {@link #MAX_FACTORIAL},
+     *                                  or {@link CalculatorAdvanced#MAX_FACTORIAL_EXACT} with an unlimited precision,
+     *                                  and <b>action</b> is '!'.
+     * @since 1.1
+     */
+    public void calculateAdvanced(char action) throws NotSupportedOperationException, NumberNotInAreaException {
+        BigDecimal value = getCurrentValue();
+
+        if(action == '!') {
+            if(value.signum() < 0 || value.compareTo(MAX_FACTORIAL_VALUE) >= 0) {
+                throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+            }
+
+            int n = value.intValue();
+            if(mathContext.getPrecision() == 0) {
+                store(new BigDecimal(CalculatorAdvanced.factorialExact(n)));
+            }
+            else {
+                MathContext partial = new MathContext(mathContext.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+                store(n < 2 ? BigDecimal.ONE : product(2, n, partial).round(mathContext));
+            }
+        }
+        else if(action >= 0x30 && action <= 0x39) {
+            int num = action - 48;
+            store(value.setScale(0, RoundingMode.DOWN).pow(num, mathContext));
+        }
+        else {
+            throw new NotSupportedOperationException();
+        }
+    }
+
+    /**
+     * Checks if the whole part of the current value is an Armstrong or a Perfect number, like
+     * {@link CalculatorAdvanced#hasCharacteristic(char)}. The limitation is:
+     * <i>1 ≤ the current value ≤ {@link Long#MAX_VALUE}.</i>
+     *
+     * @param value Denotes which check to perform. Valid values are 'A' and 'P'.
+     * @return <i>true</i> if the number has the characteristic, <i>false</i> otherwise.
+     * @throws NotSupportedOperationException If <b>value</b> parameter is not a valid value.
+     * @throws NumberNotInAreaException If the current value is not in-between the allowed range.
+     * @since 1.1
+     */
+    public Boolean hasCharacteristic(char value) throws NotSupportedOperationException, NumberNotInAreaException {
+        if(value != 'A' && value != 'P') {
+            throw new NotSupportedOperationException();
+        }
+
+        BigDecimal current = getCurrentValue();
+        if(current.compareTo(BigDecimal.ONE) < 0 || current.compareTo(MAX_LONG) > 0) {
+            throw new NumberNotInAreaException();
+        }
+
+        long number = current.longValue();
+        return value == 'A' ? CalculatorAdvanced.isArmstrong(number) : NumberTheory.isPerfectUnchecked(number);
+    }
+
+
+    /**
+     * Multiplies all numbers from <b>from</b> to <b>to</b>, both inclusive, as a balanced binary tree
+     * of partial products, which are rounded to <b>mathContext</b>.
+     *
+     * @param from The first factor.
+     * @param to The last factor.
+     * @param mathContext The math context used to round the partial products.
+     * @return The rounded product of the range.
+     * @since 1.1
+     */
+    private static BigDecimal product(int from, int to, MathContext mathContext) {
+        if(to - from < 16) {
+            BigDecimal result = BigDecimal.ONE;
+            long mul = 1;
+
+            for(long i = from; i <= to; i++) {
+                if(mul > Long.MAX_VALUE / i) {
+                    result = result.multiply(BigDecimal.valueOf(mul), mathContext);
+                    mul = 1;
+                }
+                mul *= i;
+            }
+
+            return result.multiply(BigDecimal.valueOf(mul), mathContext);
+        }
+
+        int middle = (from + to) >>> 1;
+        return product(from, middle, mathContext).multiply(product(middle + 1, to, mathContext), mathContext);
+    }
+}
@@ -3,6 +3,10 @@ package calculators;
 
 import exceptions.*;
 
+import java.nio.ByteBuffer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+
 
 /**
  * Calculator class that provides four basic arithmetic operations.
@@ -12,10 +16,56 @@ import exceptions.*;
  * @version 1.0
  */
 public class Calculator {
+    /**
+     * Reducer used by {@link #calculateParallel(double[], char)}.
+     */
+    private static final ParallelReducer DEFAULT_REDUCER = new ParallelReducer();
+
+    /**
+     * Number of bytes written by {@link #writeTo(ByteBuffer)}.
+     */
+    public static final int STATE_SIZE = 10;
+
+    /**
+     * Version of the binary format of the state of calculators, journals and caches.
+     */
+    static final byte STATE_VERSION = 1;
+
+    /**
+     * Message of the NotSupportedOperationException for a binary operator that is neither built-in nor registered.
+     */
+    static final String NOT_SUPPORTED_OPERATION_MESSAGE = "You can only use +, -, *, / or a registered binary operator in Calculator!";
+
+    private static final NullValueException NULL_VALUE = new NullValueException(null, false);
+    private static final NullValueException NULL_CURRENT_VALUE = new NullValueException("Could not set currentValue to null!", false);
+    private static final DivisionByZeroException DIVISION_BY_ZERO = new DivisionByZeroException("You can not divide by zero!", false);
+    private static final NotSupportedOperationException NOT_SUPPORTED_OPERATION =
+            new NotSupportedOperationException(NOT_SUPPORTED_OPERATION_MESSAGE, false);
+
     /**
      * Stored value inside the calculator and always the first operand.
      */
-    protected Double currentValue;
+    protected double currentValue;
+
+    /**
+     * If <i>true</i>, exceptions are created once, without a stack trace, and thrown every time they occur.
+     */
+    protected boolean stacklessExceptions;
+
+    /**
+     * Metrics to which every operation is recorded, or null if operations are not measured.
+     */
+    protected CalculatorMetrics metrics;
+
+    /**
+     * Operators which the calculator understands besides the built-in ones.
+     */
+    protected OperatorRegistry operators = OperatorRegistry.defaults();
+
+    /**
+     * Observer which receives the operand of every successful operation, or null.
+     */
+    protected DoubleConsumer operandObserver;
 
 
     /**
@@ -34,7 +84,17 @@ public class Calculator {
      * @since 1.0
      */
     public Double getCurrentValue() {
-        return currentValue; // to do: don't return null
+        return currentValue;
+    }
+
+    /**
+     * Getter for the current value which does not box the result.
+     *
+     * @return The current value.
+     * @since 1.1
+     */
+    public double getCurrentValueAsDouble() {
+        return currentValue;
     }
 
     /**
@@ -45,47 +105,452 @@ public class Calculator {
      * @since 1.0
      */
     public void setCurrentValue(Double value) throws NullValueException{
-        if(value == null) throw new NullValueException("Could not set currentValue to null!");
+        if(value == null) throw stacklessExceptions ? NULL_CURRENT_VALUE : new NullValueException("Could not set currentValue to null!");
         currentValue = value;
     }
 
 
+    /**
+     * Checks if the calculator throws preallocated exceptions without a stack trace.
+     *
+     * @return <i>true</i> if the exceptions are stackless.
+     * @since 1.1
+     */
+    public boolean isStacklessExceptions() {
+        return stacklessExceptions;
+    }
+
+    /**
+     * Sets whether the calculator throws preallocated exceptions without a stack trace. Capturing
+     * the stack trace is the most expensive part of throwing an exception, so this is useful when
+     * errors are common. The same exception object is thrown every time, so it should not be modified.
+     *
+     * @param stacklessExceptions <i>true</i> to throw stackless exceptions.
+     * @since 1.1
+     */
+    public void setStacklessExceptions(boolean stacklessExceptions) {
+        this.stacklessExceptions = stacklessExceptions;
+    }
+
+    /**
+     * Writes the state of the calculator, which is the current value and whether it throws stackless exceptions,
+     * in {@link #STATE_SIZE} bytes: the format version, the flags and the current value.
+     * Metrics are not written.
+     *
+     * @param buffer The buffer to which the state is written, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer has less than {@link #STATE_SIZE} bytes remaining.
+     * @since 1.1
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(STATE_VERSION)
+                .put((byte) (stacklessExceptions ? 1 : 0))
+                .putDouble(getCurrentValueAsDouble());
+    }
+
+    /**
+     * Restores the state written by {@link #writeTo(ByteBuffer)}, possibly by a calculator on another machine.
+     * If the state can not be read, the calculator is not changed.
+     *
+     * @param buffer The buffer from which the state is read, at its position.
+     * @throws java.nio.BufferUnderflowException If the buffer has less than {@link #STATE_SIZE} bytes remaining.
+     * @throws IllegalArgumentException If the state was written in an unsupported format version.
+     * @since 1.1
+     */
+    public void readFrom(ByteBuffer buffer) {
+        checkStateVersion(buffer.get());
+        byte flags = buffer.get();
+        double value = buffer.getDouble();
+
+        stacklessExceptions = (flags & 1) != 0;
+        currentValue = value;
+    }
+
+    static void checkStateVersion(byte version) {
+        if(version != STATE_VERSION) {
+            throw new IllegalArgumentException("Unsupported state version " + version + "!");
+        }
+    }
+
+    /**
+     * Getter for the operator registry.
+     *
+     * @return The registry of the operators which the calculator understands.
+     * @since 1.1
+     */
+    public OperatorRegistry getOperators() {
+        return operators;
+    }
+
+    /**
+     * Sets the registry of the operators which the calculator understands, so custom operators
+     * can be used without subclassing. The registry can be shared by many calculators,
+     * but operators should not be registered while it is in use.
+     *
+     * @param operators The operator registry.
+     * @throws NullValueException If <b>operators</b> is null.
+     * @since 1.1
+     */
+    public void setOperators(OperatorRegistry operators) throws NullValueException {
+        if(operators == null) {
+            throw new NullValueException();
+        }
+
+        this.operators = operators;
+    }
+
+    /**
+     * Getter for the metrics.
+     *
+     * @return The metrics to which operations are recorded, or null if they are not measured.
+     * @since 1.1
+     */
+    public CalculatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics to which the operator, status and latency of every single operation are recorded:
+     * {@link #calculate(double, char)}, {@link #tryCalculate(double, char)} and, in {@link CalculatorAdvanced},
+     * the advanced operations and characteristics. Operations on arrays, like {@link #fold(double[], char)},
+     * {@link #calculateAll(double[], char[])} and {@link #calculateParallel(double[], char)}, and operations
+     * which an {@link OperationJournal} performs again are not recorded. The same metrics can be set to many
+     * calculators. Measuring adds two calls of {@link System#nanoTime()} to every operation, so without metrics
+     * the calculator is not slowed down.
+     *
+     * @param metrics The metrics, or null to stop measuring.
+     * @since 1.1
+     */
+    public void setMetrics(CalculatorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Getter for the operand observer.
+     *
+     * @return The observer which receives the operands, or null if there is none.
+     * @since 1.1
+     */
+    public DoubleConsumer getOperandObserver() {
+        return operandObserver;
+    }
+
+    /**
+     * Sets the observer which receives the operand of every successful {@link #calculate(double, char)},
+     * so statistics of the operands can be collected while calculating, for example with
+     * <i>calculator.setOperandObserver(statistics.andThen(sketch))</i>, where statistics is a
+     * {@link RunningStatistics} and sketch is a {@link QuantileSketch}. Operations on arrays and operations
+     * which an {@link OperationJournal} performs again when undoing or replaying are not observed.
+     *
+     * @param operandObserver The observer, or null to stop observing.
+     * @since 1.1
+     */
+    public void setOperandObserver(DoubleConsumer operandObserver) {
+        this.operandObserver = operandObserver;
+    }
+
+
     /**
      * Provides four basic arithmetic operations: addition, subtraction, multiplication and division.
      * The resulting value is set to <b>currentValue</b>.
      *
      * @param value  The second operand in the mathematical expression.
-     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*', '/'
+     *                  and the binary operators registered in {@link #getOperators()}.
      * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
      * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
      * @throws NullValueException  If <b>value</b> is null.
+     * @throws ArithmeticException  If a registered binary operator does not accept the operands.
      * @since 1.0
      */
     public void calculate(Double value, char operator) throws NotSupportedOperationException, DivisionByZeroException, NullValueException{
         if(value == null) {
+            throw stacklessExceptions ? NULL_VALUE : new NullValueException();
+        }
+
+        calculate(value.doubleValue(), operator);
+    }
+
+    /**
+     * Same as {@link #calculate(Double, char)}, but works with a primitive operand,
+     * so no objects are allocated while calculating.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*', '/'
+     *                  and the binary operators registered in {@link #getOperators()}.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
+     * @throws ArithmeticException  If a registered binary operator does not accept the operands.
+     * @since 1.1
+     */
+    public void calculate(double value, char operator) throws NotSupportedOperationException, DivisionByZeroException{
+        int status = tryCalculate(value, operator);
+
+        if(status == Status.DIVISION_BY_ZERO) {
+            throw stacklessExceptions ? DIVISION_BY_ZERO : new DivisionByZeroException("You can not divide by zero!");
+        }
+        else if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw stacklessExceptions ? NOT_SUPPORTED_OPERATION : new NotSupportedOperationException(NOT_SUPPORTED_OPERATION_MESSAGE);
+        }
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw new ArithmeticException("The operands are not in the area of the operator " + operator + "!");
+        }
+    }
+
+    /**
+     * Same as {@link #calculate(double, char)}, but reports errors with a status code instead of throwing
+     * an exception. If there is an error, the current value is not changed.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*', '/'
+     *                  and the binary operators registered in {@link #getOperators()}.
+     * @return {@link Status#OK}, {@link Status#DIVISION_BY_ZERO}, {@link Status#NOT_SUPPORTED_OPERATION},
+     *         or {@link Status#NUMBER_NOT_IN_AREA} if a registered binary operator threw an ArithmeticException.
+     * @since 1.1
+     */
+    public int tryCalculate(double value, char operator) {
+        int status;
+
+        if(metrics == null) {
+            status = apply(value, operator);
+        }
+        else {
+            long start = System.nanoTime();
+            status = apply(value, operator);
+            metrics.record(operator, status, System.nanoTime() - start, value);
+        }
+
+        if(operandObserver != null && status == Status.OK) {
+            operandObserver.accept(value);
+        }
+
+        return status;
+    }
+
+    /**
+     * Performs an operation again, for example when {@link OperationJournal} undoes or replays it.
+     * Unlike {@link #tryCalculate(double, char)}, the operation is not recorded to the metrics
+     * and its operand is not passed to the operand observer, because they already saw it.
+     */
+    int replay(double value, char operator) {
+        return apply(value, operator);
+    }
+
+    private int apply(double value, char operator) {
+        int status = binaryStatus(value, operator, operators);
+        if(status != Status.OK) {
+            return status;
+        }
+
+        try {
+            currentValue = binary(currentValue, value, operator, operators);
+        }
+        catch(ArithmeticException e) {
+            return Status.NUMBER_NOT_IN_AREA;
+        }
+
+        return Status.OK;
+    }
+
+    /**
+     * Checks if a binary operator can be applied to the operand, without applying it.
+     * Together with {@link #binary(double, double, char, OperatorRegistry)} it defines the binary operations
+     * of all calculators, including {@link CalculatorPool}.
+     *
+     * @return {@link Status#OK}, {@link Status#DIVISION_BY_ZERO} or {@link Status#NOT_SUPPORTED_OPERATION}.
+     */
+    static int binaryStatus(double value, char operator, OperatorRegistry operators) {
+        switch(operator) {
+            case '+': case '-': case '*': return Status.OK;
+            case '/': return value == 0.0 ? Status.DIVISION_BY_ZERO : Status.OK;
+            default: return operators.getBinary(operator) == null ? Status.NOT_SUPPORTED_OPERATION : Status.OK;
+        }
+    }
+
+    /**
+     * Applies a binary operator for which {@link #binaryStatus(double, char, OperatorRegistry)} returned OK.
+     *
+     * @return The new current value.
+     * @throws ArithmeticException If a registered binary operator does not accept the operands.
+     */
+    static double binary(double current, double value, char operator, OperatorRegistry operators) {
+        switch(operator) {
+            case '+': return current + value;
+            case '-': return current - value;
+            case '*': return current * value;
+            case '/': return current / value;
+            default: return operators.getBinary(operator).applyAsDouble(current, value);
+        }
+    }
+
+
+    /**
+     * Applies every operand with its matching operator to the current value, in order.
+     * The calculation stops at the first division by zero and its index is returned,
+     * while the operations before that index stay applied.
+     *
+     * @param operands  The second operands of each operation.
+     * @param operators  The operators of each operation. Valid values are: '+', '-', '*', '/'
+     *                   and the binary operators registered in {@link #getOperators()}.
+     * @return The index of the operation that tried to divide by zero, or -1 if all operations were applied.
+     * @throws NotSupportedOperationException  If one of the <b>operators</b> is not a valid value.
+     *                                         The operations before it stay applied.
+     * @throws NullValueException  If any of the arrays is null.
+     * @throws ArithmeticException  If a registered binary operator does not accept an operand.
+     *                              The operations before it stay applied.
+     * @throws IllegalArgumentException  If the arrays are not of the same length.
+     * @since 1.1
+     */
+    public int calculateAll(double[] operands, char[] operators) throws NotSupportedOperationException, NullValueException{
+        if(operands == null || operators == null) {
+            throw new NullValueException();
+        }
+        if(operands.length != operators.length) {
+            throw new IllegalArgumentException("Every operand needs exactly one operator!");
+        }
+
+        double result = currentValue;
+
+        for(int i = 0; i < operands.length; i++) {
+            double value = operands[i];
+
+            switch(operators[i]) {
+                case '+': result += value; break;
+                case '-': result -= value; break;
+                case '*': result *= value; break;
+                case '/':
+                    if(value == 0.0) {
+                        currentValue = result;
+                        return i;
+                    }
+                    result /= value;
+                    break;
+                default:
+                    DoubleBinaryOperator function = this.operators.getBinary(operators[i]);
+                    if(function == null) {
+                        currentValue = result;
+                        throw new NotSupportedOperationException(NOT_SUPPORTED_OPERATION_MESSAGE);
+                    }
+                    try {
+                        result = function.applyAsDouble(result, value);
+                    }
+                    catch(ArithmeticException e) {
+                        currentValue = result;
+                        throw e;
+                    }
+            }
+        }
+
+        currentValue = result;
+        return -1;
+    }
+
+    /**
+     * Applies the same operator with every value to the current value, in order.
+     * The operator is resolved once, so each value costs only one arithmetic operation.
+     * The calculation stops at the first division by zero and its index is returned,
+     * while the operations before that index stay applied.
+     *
+     * @param values  The second operands of each operation.
+     * @param operator  The operator used for every operation. Valid values are: '+', '-', '*', '/'
+     *                  and the binary operators registered in {@link #getOperators()}.
+     * @return The index of the value that is zero when dividing, or -1 if all operations were applied.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> is null.
+     * @throws ArithmeticException  If a registered binary operator does not accept a value.
+     *                              The operations before it stay applied.
+     * @since 1.1
+     */
+    public int fold(double[] values, char operator) throws NotSupportedOperationException, NullValueException{
+        if(values == null) {
             throw new NullValueException();
         }
 
+        double result = currentValue;
 
         if(operator == '+') {
-            currentValue += value;
+            for(double value : values) {
+                result += value;
+            }
         }
         else if(operator == '-') {
-            currentValue -= value;
+            for(double value : values) {
+                result -= value;
+            }
         }
         else if(operator == '*') {
-            currentValue *= value;
+            for(double value : values) {
+                result *= value;
+            }
         }
         else if(operator == '/') {
-            if(value == 0.0) {
-                throw new DivisionByZeroException("You can not divide by zero!");
+            for(int i = 0; i < values.length; i++) {
+                if(values[i] == 0.0) {
+                    currentValue = result;
+                    return i;
+                }
+                result /= values[i];
             }
-
-            currentValue /= value;
         }
         else {
-            throw new NotSupportedOperationException("You can only use +, -, * or / in Calculator!");
+            DoubleBinaryOperator function = operators.getBinary(operator);
+            if(function == null) {
+                throw new NotSupportedOperationException(NOT_SUPPORTED_OPERATION_MESSAGE);
+            }
+
+            try {
+                for(double value : values) {
+                    result = function.applyAsDouble(result, value);
+                }
+            }
+            catch(ArithmeticException e) {
+                currentValue = result;
+                throw e;
+            }
         }
 
+        currentValue = result;
+        return -1;
+    }
+
+    /**
+     * Reduces all values in parallel with an associative operator and applies the result
+     * to the current value. For '+' the current value becomes <i>currentValue + (v0 + v1 + ...)</i>
+     * and for '*' it becomes <i>currentValue * (v0 * v1 * ...)</i>. The result can differ from
+     * {@link #fold(double[], char)} only by rounding.
+     *
+     * @param values  The values that are reduced.
+     * @param operator  The operator used for the reduction. Valid values are: '+' and '*'.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> is null.
+     * @since 1.1
+     */
+    public void calculateParallel(double[] values, char operator) throws NotSupportedOperationException, NullValueException{
+        calculateParallel(values, operator, DEFAULT_REDUCER);
+    }
+
+    /**
+     * Same as {@link #calculateParallel(double[], char)}, but uses the passed reducer,
+     * which defines the pool, the sequential threshold and the summation method.
+     *
+     * @param values  The values that are reduced.
+     * @param operator  The operator used for the reduction. Valid values are: '+' and '*'.
+     * @param reducer  The reducer that performs the reduction.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> or <b>reducer</b> is null.
+     * @since 1.1
+     */
+    public void calculateParallel(double[] values, char operator, ParallelReducer reducer) throws NotSupportedOperationException, NullValueException{
+        if(reducer == null) {
+            throw new NullValueException();
+        }
+
+        double reduced = reducer.reduce(values, operator);
+
+        if(operator == '+') {
+            currentValue += reduced;
+        }
+        else {
+            currentValue *= reduced;
+        }
     }
 }
@@ -3,6 +3,9 @@ package calculators;
 
 import exceptions.*;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 
 /**
  * Advanced calculator which provides, besides four basic arithmetic operations,
@@ -20,6 +23,46 @@ import exceptions.*;
  * @version 1.0
  */
 public class CalculatorAdvanced extends Calculator {
+    /**
+     * The biggest number whose factorial can be represented as a double.
+     */
+    public static final int MAX_FACTORIAL = 170;
+
+    /**
+     * The biggest number whose factorial is calculated exactly. Its factorial has 456,574 digits;
+     * bigger factorials would take too long and too much memory.
+     */
+    public static final int MAX_FACTORIAL_EXACT = 100_000;
+
+    /**
+     * Factorials of all numbers from 0 to {@link #MAX_FACTORIAL}, each rounded correctly to a double.
+     */
+    static final double[] FACTORIALS = new double[MAX_FACTORIAL + 1];
+
+    private static final NumberNotInAreaException FACTORIAL_NOT_IN_AREA =
+            new NumberNotInAreaException("Impossible to calculate factorial of that number!", false);
+    private static final NumberNotInAreaException NUMBER_NOT_IN_AREA = new NumberNotInAreaException(null, false);
+    private static final NotSupportedOperationException NOT_SUPPORTED_OPERATION = new NotSupportedOperationException(null, false);
+
+    /**
+     * Cache used by all advanced calculators that do not have their own cache, or null.
+     */
+    private static volatile ResultCache defaultCache;
+
+    /**
+     * Cache used by this calculator, or null to use the default cache.
+     */
+    private ResultCache cache;
+
+    static {
+        BigInteger factorial = BigInteger.ONE;
+        FACTORIALS[0] = 1.0;
+
+        for(int i = 1; i <= MAX_FACTORIAL; i++) {
+            factorial = factorial.multiply(BigInteger.valueOf(i));
+            FACTORIALS[i] = factorial.doubleValue();
+        }
+    }
 
     /**
      * Initializes a new CalculatorAdvanced object with a default current value set to 0.0
@@ -33,11 +76,13 @@ public class CalculatorAdvanced extends Calculator {
     /**
      * Provides factorial and exponent calculation.The decimal number is rounded using only it's whole part.
      * and the results are stored in the current value attribute. Calculating factorial has a limitation:
-     * <i>the current value must be non-negative and ≤ 10</i>.
+     * <i>the current value must be non-negative and ≤ 170</i>, because bigger factorials can not be
+     * represented as a double. Use {@link #factorialExact(int)} for those.
      *
      * @param action The operator that is used for calculation. Valid values are '!' for factorial
      *               and '1', '2', '3', '4', '5', '6', '7', '8', '9' for calculating the n-th power of the
-     *               current value, where n is one of the above listed numbers.
+     *               current value, where n is one of the above listed numbers, and the unary operators
+     *               registered in {@link #getOperators()}.
      *
      * @throws NotSupportedOperationException If <b>action</b> is not a valid value.
      * @throws NumberNotInAreaException If the current value is not in-between the allowed range.
@@ -45,35 +90,109 @@ public class CalculatorAdvanced extends Calculator {
      * @since 1.0
      */
     public void calculateAdvanced(char action) throws NotSupportedOperationException, NumberNotInAreaException {
+        int status = tryCalculateAdvanced(action);
+
+        if(status == Status.NUMBER_NOT_IN_AREA && action == '!') {
+            throw stacklessExceptions ? FACTORIAL_NOT_IN_AREA : new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+        }
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw stacklessExceptions ? NUMBER_NOT_IN_AREA : new NumberNotInAreaException();
+        }
+        else if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw stacklessExceptions ? NOT_SUPPORTED_OPERATION : new NotSupportedOperationException();
+        }
+    }
+
+    /**
+     * Same as {@link #calculateAdvanced(char)}, but reports errors with a status code instead of throwing
+     * an exception. If there is an error, the current value is not changed.
+     *
+     * @param action The operator that is used for calculation. Valid values are '!', '0' to '9'
+     *               and the unary operators registered in {@link #getOperators()}.
+     * @return {@link Status#OK}, {@link Status#NOT_SUPPORTED_OPERATION} or {@link Status#NUMBER_NOT_IN_AREA}.
+     * @since 1.1
+     */
+    public int tryCalculateAdvanced(char action) {
+        if(metrics == null) {
+            return applyAdvanced(action);
+        }
+
+        double input = currentValue;
+        long start = System.nanoTime();
+        int status = applyAdvanced(action);
+        metrics.record(action, status, System.nanoTime() - start, input);
+        return status;
+    }
+
+    /**
+     * Performs an advanced operation again, without recording it to the metrics, like {@link #replay(double, char)}.
+     */
+    int replayAdvanced(char action) {
+        return applyAdvanced(action);
+    }
+
+    private int applyAdvanced(char action) {
+        int status = advancedStatus(currentValue, action, operators);
+        if(status != Status.OK) {
+            return status;
+        }
+
+        try {
+            currentValue = advanced(currentValue, action, operators);
+        }
+        catch(ArithmeticException e) {
+            return Status.NUMBER_NOT_IN_AREA;
+        }
+
+        return Status.OK;
+    }
+
+    /**
+     * Checks if an advanced operation can be performed on the value, without performing it.
+     * Together with {@link #advanced(double, char, OperatorRegistry)} it defines the advanced operations
+     * of all calculators, including {@link CalculatorPool}.
+     *
+     * @return {@link Status#OK}, {@link Status#NOT_SUPPORTED_OPERATION} or {@link Status#NUMBER_NOT_IN_AREA}.
+     */
+    static int advancedStatus(double value, char action, OperatorRegistry operators) {
         if(action == '!') {
-        	// factorial(value) method: 
-            if(currentValue < 0.0 || currentValue > 10.0) {
-                throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
-            }
-            
-            int intValue = currentValue.intValue();  				
-            
-            if(intValue == 0.0 || intValue == 1.0) {
-                currentValue = 1.0;
-                return;
-            }
+            return value < 0.0 || value > MAX_FACTORIAL ? Status.NUMBER_NOT_IN_AREA : Status.OK;
+        }
+        else if(action >= 0x30 && action <= 0x39) {
+            return Status.OK;
+        }
 
-            double mul = 1.0;
-            for(int i = 2; i <= intValue; i++) {
-                mul *= i;
-            }
+        return operators.getUnary(action) == null ? Status.NOT_SUPPORTED_OPERATION : Status.OK;
+    }
 
-            currentValue = mul;
+    /**
+     * Performs an advanced operation for which {@link #advancedStatus(double, char, OperatorRegistry)} returned OK.
+     *
+     * @return The new value.
+     * @throws ArithmeticException If a registered unary operator does not accept the value.
+     */
+    static double advanced(double value, char action, OperatorRegistry operators) {
+        if(action == '!') {
+            return FACTORIALS[(int) value];
         }
-        else if(action >= 0x30 && action <= 0x39){
+        else if(action >= 0x30 && action <= 0x39) {
             int num = action - 48; // (If '0' num = 0) ...
-            currentValue = pow(currentValue.longValue(), num);
-        }
-        else {
-            throw new NotSupportedOperationException();
+            return pow((double) (long) value, num);
         }
 
+        return operators.getUnary(action).applyAsDouble(value);
+    }
 
+    /**
+     * Raises the current value to the power of <b>exponent</b> and stores the result in the current value.
+     * Unlike the power actions of {@link #calculateAdvanced(char)}, the current value is not rounded
+     * and the exponent can be any number.
+     *
+     * @param exponent The exponent. Negative exponents calculate the power of the reciprocal value.
+     * @since 1.1
+     */
+    public void calculatePower(long exponent) {
+        currentValue = pow(currentValue, exponent);
     }
 
     /**
@@ -90,94 +209,402 @@ public class CalculatorAdvanced extends Calculator {
      * @since 1.0
      */
     public Boolean hasCharacteristic(char value) throws NotSupportedOperationException, NumberNotInAreaException{
-        if(value == 'A') {
-            return isArmstrong(currentValue.longValue());
+        int status = tryHasCharacteristic(value);
+
+        if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw stacklessExceptions ? NOT_SUPPORTED_OPERATION : new NotSupportedOperationException();
         }
-        else if(value == 'P') {
-            return isPerfect(currentValue.longValue());
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw stacklessExceptions ? NUMBER_NOT_IN_AREA : new NumberNotInAreaException();
         }
-        else {
-            throw new NotSupportedOperationException();
+
+        return status == 1;
+    }
+
+    /**
+     * Same as {@link #hasCharacteristic(char)}, but reports the result and errors with a status code
+     * instead of returning a Boolean or throwing an exception.
+     *
+     * @param value Denotes which check to perform. Valid values are 'A' and 'P'.
+     * @return 1 if the number has the characteristic, 0 if it does not, or
+     *         {@link Status#NOT_SUPPORTED_OPERATION} or {@link Status#NUMBER_NOT_IN_AREA} if there is an error.
+     * @since 1.1
+     */
+    public int tryHasCharacteristic(char value) {
+        if(metrics == null) {
+            return checkCharacteristic(value);
         }
+
+        long start = System.nanoTime();
+        int status = checkCharacteristic(value);
+        metrics.record(value, status, System.nanoTime() - start, currentValue);
+        return status;
     }
 
+    private int checkCharacteristic(char value) {
+        int status = characteristicStatus(currentValue, value);
+        if(status != Status.OK) {
+            return status;
+        }
+
+        long number = (long) currentValue;
+        ResultCache results = getActiveCache();
+
+        if(results != null) {
+            Boolean cached = results.getBoolean(value, number);
+            if(cached != null) {
+                return cached ? 1 : 0;
+            }
+        }
+
+        boolean result = characteristic(number, value);
+
+        if(results != null) {
+            results.putBoolean(value, number, result);
+        }
+
+        return result ? 1 : 0;
+    }
 
     /**
-     * Calculates the n-th power of the current value, where n is the <b>num</b> parameter.
+     * Checks if a characteristic can be checked for the whole part of the value, without checking it.
      *
-     * @param currentValue The value whose power is calculated.
-     * @param num The exponent.
-     * @return <b>currentValue</b> raised to the power of <b>num</b>.
-     * @since 1.0
+     * @return {@link Status#OK}, {@link Status#NOT_SUPPORTED_OPERATION} or {@link Status#NUMBER_NOT_IN_AREA}.
      */
-    private static double pow(long currentValue, int num) {
-        if(num == 0) {
-            return 1.0;
+    static int characteristicStatus(double value, char characteristic) {
+        if(characteristic != 'A' && characteristic != 'P') {
+            return Status.NOT_SUPPORTED_OPERATION;
         }
 
-        double mul = currentValue;
+        return (long) value < 1 ? Status.NUMBER_NOT_IN_AREA : Status.OK;
+    }
 
-        for(int i = 1; i < num; i++) {
-            mul *= currentValue;
-        }
+    /**
+     * Checks a characteristic for which {@link #characteristicStatus(double, char)} returned OK.
+     */
+    static boolean characteristic(long number, char characteristic) {
+        return characteristic == 'A' ? isArmstrong(number) : NumberTheory.isPerfectUnchecked(number);
+    }
+
+
+    /**
+     * Getter for the cache of this calculator.
+     *
+     * @return The cache of this calculator, or null if it uses the default cache.
+     * @since 1.1
+     */
+    public ResultCache getCache() {
+        return cache;
+    }
 
-        return mul;
+    /**
+     * Sets the cache which stores the results of {@link #hasCharacteristic(char)} and
+     * {@link #calculateFactorialExact()}. The cache can be shared between calculators.
+     *
+     * @param cache The cache of this calculator, or null to use the default cache.
+     * @since 1.1
+     */
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
     }
 
+    /**
+     * Getter for the default cache.
+     *
+     * @return The cache used by all calculators without their own cache, or null if there is none.
+     * @since 1.1
+     */
+    public static ResultCache getDefaultCache() {
+        return defaultCache;
+    }
 
     /**
-     * Checks if the number is an Armstrong number.
+     * Sets the cache used by all calculators that do not have their own cache.
      *
-     * @param curr The number that will be checked.
-     * @return <i>true</i> if the number <b>is</b> an Armstrong number,<br>
-     *         <i>false</i> if the number <b>is not</b> an Armstrong number.
-     * @throws NumberNotInAreaException If <b>curr</b> is less than 1.0.
-     * since 1.0
+     * @param cache The default cache, or null to disable caching.
+     * @since 1.1
+     */
+    public static void setDefaultCache(ResultCache cache) {
+        defaultCache = cache;
+    }
+
+    private ResultCache getActiveCache() {
+        return cache != null ? cache : defaultCache;
+    }
+
+
+    /**
+     * Finds all Armstrong numbers in range from <b>from</b> to <b>to</b>, both inclusive.
+     * The range is scanned in parallel.
+     *
+     * @param from The first number of the range.
+     * @param to The last number of the range.
+     * @return The Armstrong numbers in ascending order. The array is empty if <b>from</b> is bigger than <b>to</b>.
+     * @throws NumberNotInAreaException If <b>from</b> is less than 1.
+     * @since 1.1
      */
-    private static boolean isArmstrong(long curr) throws NumberNotInAreaException{
-        if(curr < 1.0) {
+    public static long[] findArmstrong(long from, long to) throws NumberNotInAreaException {
+        if(from < 1) {
             throw new NumberNotInAreaException();
         }
 
-        int numDigits = 0;
-        long temp = curr;
+        return RangeScanner.armstrong(from, to);
+    }
 
-        for(; temp != 0; temp /= 10) {
-            numDigits++;
+    /**
+     * Finds all perfect numbers in range from <b>from</b> to <b>to</b>, both inclusive.
+     * The range is scanned in parallel.
+     *
+     * @param from The first number of the range.
+     * @param to The last number of the range.
+     * @return The perfect numbers in ascending order. The array is empty if <b>from</b> is bigger than <b>to</b>.
+     * @throws NumberNotInAreaException If <b>from</b> is less than 1.
+     * @since 1.1
+     */
+    public static long[] findPerfect(long from, long to) throws NumberNotInAreaException {
+        if(from < 1) {
+            throw new NumberNotInAreaException();
         }
 
-        int sum = 0;
-        temp = curr;
-        for(; temp != 0; temp /= 10) {
-            sum += pow((temp % 10), numDigits);
+        return RangeScanner.perfect(from, to);
+    }
+
+
+    /**
+     * Calculates the factorial of the whole part of the current value exactly. The current value is not changed.
+     *
+     * @return The factorial of the current value.
+     * @throws NumberNotInAreaException If the current value is negative or bigger than {@link #MAX_FACTORIAL_EXACT}.
+     * @since 1.1
+     */
+    public BigInteger calculateFactorialExact() throws NumberNotInAreaException {
+        if(currentValue < 0.0 || currentValue >= MAX_FACTORIAL_EXACT + 1) {
+            throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+        }
+
+        int number = (int) currentValue;
+        ResultCache results = getActiveCache();
+
+        if(results != null) {
+            BigInteger cached = results.getBigInteger('!', number);
+            if(cached != null) {
+                return cached;
+            }
+        }
+
+        BigInteger result = factorialExact(number);
+
+        if(results != null) {
+            try {
+                results.putBigInteger('!', number, result);
+            }
+            catch(NullValueException e) {
+                // A calculated factorial is never null.
+                throw new AssertionError(e);
+            }
         }
 
-        return sum == curr;
+        return result;
     }
 
 
     /**
-     * Checks if the number is perfect.
+     * Returns the factorial of <b>n</b> from a precomputed table.
      *
-     * @param curr The number that will be checked.
-     * @return <i>true</i> if the number <b>is</b> perfect,<br>
-     *         <i>false</i> if the number <b>is not</b> perfect.
-     * @throws NumberNotInAreaException If <b>curr</b> is less than 1.0.
-     * @since 1.0
+     * @param n The number whose factorial is returned.
+     * @return The factorial of <b>n</b>.
+     * @throws NumberNotInAreaException If <b>n</b> is negative or bigger than {@link #MAX_FACTORIAL}.
+     * @since 1.1
      */
-    private static boolean isPerfect(long curr) throws NumberNotInAreaException{
-        if(curr < 1.0) {
-            throw new NumberNotInAreaException();
+    public static double factorial(int n) throws NumberNotInAreaException {
+        if(n < 0 || n > MAX_FACTORIAL) {
+            throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+        }
+
+        return FACTORIALS[n];
+    }
+
+    /**
+     * Calculates the exact factorial of <b>n</b>. The numbers are multiplied as a balanced binary tree
+     * of partial products, so the big multiplications are done on operands of similar size.
+     *
+     * @param n The number whose factorial is calculated.
+     * @return The factorial of <b>n</b>.
+     * @throws NumberNotInAreaException If <b>n</b> is negative or bigger than {@link #MAX_FACTORIAL_EXACT}.
+     * @since 1.1
+     */
+    public static BigInteger factorialExact(int n) throws NumberNotInAreaException {
+        if(n < 0 || n > MAX_FACTORIAL_EXACT) {
+            throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+        }
+        if(n < 2) {
+            return BigInteger.ONE;
+        }
+
+        return product(2, n);
+    }
+
+    /**
+     * Multiplies all numbers from <b>from</b> to <b>to</b>, both inclusive.
+     * Short ranges are multiplied in a long while it does not overflow.
+     *
+     * @param from The first factor.
+     * @param to The last factor.
+     * @return The product of the range.
+     * @since 1.1
+     */
+    private static BigInteger product(int from, int to) {
+        if(to - from < 16) {
+            BigInteger result = BigInteger.ONE;
+            long mul = 1;
+
+            for(long i = from; i <= to; i++) {
+                if(mul > Long.MAX_VALUE / i) {
+                    result = result.multiply(BigInteger.valueOf(mul));
+                    mul = 1;
+                }
+                mul *= i;
+            }
+
+            return result.multiply(BigInteger.valueOf(mul));
         }
 
-        long temp = curr;
-        int sum = 0;
+        int middle = (from + to) >>> 1;
+        return product(from, middle).multiply(product(middle + 1, to));
+    }
+
 
-        for(int i = 1; i <= temp / 2; i++) {
-            if(temp % i == 0) sum += i;
+    /**
+     * Calculates <b>base</b> raised to the power of <b>exponent</b> by repeated squaring,
+     * which needs only O(log n) multiplications.
+     *
+     * @param base The value whose power is calculated.
+     * @param exponent The exponent. Negative exponents calculate the power of the reciprocal value.
+     * @return <b>base</b> raised to the power of <b>exponent</b>.
+     * @since 1.1
+     */
+    public static double pow(double base, long exponent) {
+        if(exponent < 0) {
+            base = 1.0 / base;
+            exponent = -exponent; // Long.MIN_VALUE stays negative, but it is read as unsigned below.
         }
 
-        return sum == temp;
+        double result = 1.0;
+
+        while(exponent != 0) {
+            if((exponent & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculates <b>base</b> raised to the power of <b>exponent</b> without any rounding.
+     *
+     * @param base The value whose power is calculated. It is converted to a BigDecimal exactly.
+     * @param exponent The exponent.
+     * @return The exact value of <b>base</b> raised to the power of <b>exponent</b>.
+     * @throws NumberNotInAreaException If <b>exponent</b> is negative or <b>base</b> is not a finite number.
+     * @since 1.1
+     */
+    public static BigDecimal powExact(double base, int exponent) throws NumberNotInAreaException {
+        if(exponent < 0 || Double.isNaN(base) || Double.isInfinite(base)) {
+            throw new NumberNotInAreaException("Impossible to calculate the exact power of that number!");
+        }
+
+        return new BigDecimal(base).pow(exponent);
+    }
+
+    /**
+     * Calculates <b>base</b> raised to the power of <b>exponent</b> modulo <b>modulus</b> by repeated squaring.
+     * The intermediate products never overflow.
+     *
+     * @param base The value whose power is calculated. Negative values are allowed.
+     * @param exponent The exponent.
+     * @param modulus The modulus.
+     * @return The result in range from 0 to <b>modulus</b> - 1.
+     * @throws NumberNotInAreaException If <b>exponent</b> is negative or <b>modulus</b> is less than 1.
+     * @since 1.1
+     */
+    public static long modPow(long base, long exponent, long modulus) throws NumberNotInAreaException {
+        if(exponent < 0 || modulus < 1) {
+            throw new NumberNotInAreaException("Impossible to calculate the modular power of that number!");
+        }
+
+        return modPowUnchecked(Math.floorMod(base, modulus), exponent, modulus);
+    }
+
+    /**
+     * Same as {@link #modPow(long, long, long)}, without checking the arguments.
+     *
+     * @param base The value whose power is calculated, in range from 0 to <b>modulus</b> - 1.
+     * @param exponent The non-negative exponent.
+     * @param modulus The positive modulus.
+     * @return The result in range from 0 to <b>modulus</b> - 1.
+     * @since 1.1
+     */
+    static long modPowUnchecked(long base, long exponent, long modulus) {
+        long result = 1 % modulus;
+
+        while(exponent != 0) {
+            if((exponent & 1) != 0) {
+                result = multiplyMod(result, base, modulus);
+            }
+            base = multiplyMod(base, base, modulus);
+            exponent >>>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculates <b>a</b> * <b>b</b> modulo <b>modulus</b> without overflowing.
+     *
+     * @param a The first factor, in range from 0 to <b>modulus</b> - 1.
+     * @param b The second factor, in range from 0 to <b>modulus</b> - 1.
+     * @param modulus The positive modulus.
+     * @return The product modulo <b>modulus</b>.
+     * @since 1.1
+     */
+    static long multiplyMod(long a, long b, long modulus) {
+        if(((a | b) >>> 31) == 0 || Math.multiplyHigh(a, b) == 0 && a * b >= 0) {
+            return a * b % modulus;
+        }
+
+        long result = 0;
+
+        for(; b != 0; b >>>= 1) {
+            if((b & 1) != 0) {
+                result = addMod(result, a, modulus);
+            }
+            a = addMod(a, a, modulus);
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculates <b>a</b> + <b>b</b> modulo <b>modulus</b> without overflowing.
+     */
+    private static long addMod(long a, long b, long modulus) {
+        return a >= modulus - b ? a - (modulus - b) : a + b;
+    }
+
+
+    /**
+     * Checks if the number is an Armstrong number.
+     *
+     * @param curr The number that will be checked, at least 1.
+     * @return <i>true</i> if the number <b>is</b> an Armstrong number,<br>
+     *         <i>false</i> if the number <b>is not</b> an Armstrong number.
+     * since 1.0
+     */
+    static boolean isArmstrong(long curr) {
+        return ArmstrongChecker.isArmstrong(curr);
     }
 
 
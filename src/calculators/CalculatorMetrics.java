@@ -0,0 +1,168 @@
+package calculators;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters, error counts and latency histograms of the operations performed by calculators.
+ *<br>
+ * -Metrics are recorded only for calculators to which they were set with {@link Calculator#setMetrics(CalculatorMetrics)},
+ * so calculators without metrics only check one field for null.<br>
+ * -One object can be shared by many calculators and threads.<br>
+ * -Every operator, action and characteristic has its own statistics, which are created the first time it is recorded.
+ * Operators that are not ASCII characters are all recorded under the character 0.<br>
+ * -Besides the latency, the input of the slowest operation is kept, which shows which values make the operation slow.<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorMetrics implements CalculatorMetricsMXBean {
+    private static final int OPERATORS = 128;
+
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(OPERATORS);
+
+
+    /**
+     * Records one operation.
+     *
+     * @param operator The operator, action or characteristic of the operation.
+     * @param status The status of the operation, one of {@link Status} codes, or 0 and 1 for characteristics.
+     * @param nanos The time the operation took.
+     * @param input The operand, or the current value for advanced operations.
+     * @since 1.1
+     */
+    public void record(char operator, int status, long nanos, double input) {
+        Entry entry = entry(operator < OPERATORS ? operator : 0);
+
+        entry.count.increment();
+        if(Status.isError(status) && -status <= entry.errors.length) {
+            entry.errors[-status - 1].increment();
+        }
+
+        entry.latency.record(nanos);
+        if(nanos > entry.slowestNanos) {
+            entry.recordSlowest(nanos, input);
+        }
+    }
+
+    /**
+     * Returns the statistics of one operation.
+     *
+     * @param operator The operator, action or characteristic of the operation.
+     * @return The statistics of the operation, or null if it was never recorded.
+     * @since 1.1
+     */
+    public OperationStats getOperation(char operator) {
+        Entry entry = entries.get(operator < OPERATORS ? operator : 0);
+        return entry == null ? null : entry.snapshot();
+    }
+
+    /**
+     * Returns the latency histogram of one operation.
+     *
+     * @param operator The operator, action or characteristic of the operation.
+     * @return The live histogram of the operation, or null if it was never recorded.
+     * @since 1.1
+     */
+    public LatencyHistogram getLatency(char operator) {
+        Entry entry = entries.get(operator < OPERATORS ? operator : 0);
+        return entry == null ? null : entry.latency;
+    }
+
+    @Override
+    public long getOperationCount() {
+        long count = 0;
+
+        for(int i = 0; i < OPERATORS; i++) {
+            Entry entry = entries.get(i);
+            if(entry != null) {
+                count += entry.count.sum();
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long count = 0;
+
+        for(int i = 0; i < OPERATORS; i++) {
+            Entry entry = entries.get(i);
+            if(entry != null) {
+                for(LongAdder errors : entry.errors) {
+                    count += errors.sum();
+                }
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public OperationStats[] getOperations() {
+        List<OperationStats> operations = new ArrayList<>();
+
+        for(int i = 0; i < OPERATORS; i++) {
+            Entry entry = entries.get(i);
+            if(entry != null) {
+                operations.add(entry.snapshot());
+            }
+        }
+
+        return operations.toArray(new OperationStats[0]);
+    }
+
+    @Override
+    public void reset() {
+        for(int i = 0; i < OPERATORS; i++) {
+            entries.set(i, null);
+        }
+    }
+
+
+    private Entry entry(int index) {
+        Entry entry;
+
+        // Loops because reset() can remove the entry right after it was created.
+        while((entry = entries.get(index)) == null) {
+            entries.compareAndSet(index, null, new Entry((char) index));
+        }
+
+        return entry;
+    }
+
+    private static final class Entry {
+        final char operator;
+        final LongAdder count = new LongAdder();
+
+        /**
+         * Errors by status: division by zero, not supported operation, number not in area.
+         */
+        final LongAdder[] errors = {new LongAdder(), new LongAdder(), new LongAdder()};
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        volatile long slowestNanos = -1;
+        double slowestInput;
+
+        Entry(char operator) {
+            this.operator = operator;
+        }
+
+        synchronized void recordSlowest(long nanos, double input) {
+            if(nanos > slowestNanos) {
+                slowestInput = input;
+                slowestNanos = nanos;
+            }
+        }
+
+        synchronized OperationStats snapshot() {
+            return new OperationStats(operator, count.sum(), errors[0].sum(), errors[1].sum(), errors[2].sum(), latency, slowestInput);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package calculators;
+
+
+/**
+ * Management interface of {@link CalculatorMetrics}, which can be registered in an MBean server, for example:
+ * <i>ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName("calculators:type=Metrics"))</i>.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public interface CalculatorMetricsMXBean {
+    /**
+     * @return The number of all recorded operations.
+     * @since 1.1
+     */
+    long getOperationCount();
+
+    /**
+     * @return The number of all recorded operations that ended with an error.
+     * @since 1.1
+     */
+    long getErrorCount();
+
+    /**
+     * @return The statistics of every operation that was recorded at least once.
+     * @since 1.1
+     */
+    OperationStats[] getOperations();
+
+    /**
+     * Removes all recorded operations.
+     * @since 1.1
+     */
+    void reset();
+}
@@ -0,0 +1,393 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+
+/**
+ * Pool of calculator sessions whose current values are stored off the heap.
+ *<br>
+ * Every session is a slot of 8 bytes in a slab of direct memory, identified by an int. The operations
+ * of {@link CalculatorAdvanced} are performed directly on the slot, so a session needs no objects and
+ * the garbage collector never scans the values. For example, 10 million sessions take 80 MB of direct
+ * memory and a bitmap of 1.25 MB on the heap, in slabs of {@link #SLAB_SESSIONS} sessions which are
+ * allocated when they are needed.
+ *<br>
+ * Opening and closing sessions is thread safe. Like a {@link Calculator}, one session should be used
+ * by only one thread at a time, but different sessions can be used by different threads at the same time.
+ * Custom operators are taken from {@link #getOperators()}, results are not cached and operations are not measured.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorPool {
+    /**
+     * Number of sessions in one slab of direct memory.
+     */
+    public static final int SLAB_SESSIONS = 1 << 20;
+
+    /**
+     * Number of bytes of one session.
+     */
+    public static final int SESSION_SIZE = Double.BYTES;
+
+    private final int capacity;
+    private final ByteBuffer[] slabs;
+    private final long[] open;
+    private int sessionCount;
+    private int firstFreeWord;
+    private volatile OperatorRegistry operators = OperatorRegistry.defaults();
+
+
+    /**
+     * Initializes a new pool. No direct memory is allocated until sessions are opened.
+     *
+     * @param capacity The maximum number of open sessions.
+     * @throws IllegalArgumentException If <b>capacity</b> is not positive.
+     * @since 1.1
+     */
+    public CalculatorPool(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive!");
+        }
+
+        this.capacity = capacity;
+        this.slabs = new ByteBuffer[(int) (((long) capacity + SLAB_SESSIONS - 1) / SLAB_SESSIONS)];
+        this.open = new long[(int) (((long) capacity + 63) / 64)];
+    }
+
+
+    /**
+     * Getter for the capacity.
+     *
+     * @return The maximum number of open sessions.
+     * @since 1.1
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter for the number of open sessions.
+     *
+     * @return The number of open sessions.
+     * @since 1.1
+     */
+    public synchronized int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated by the pool.
+     *
+     * @return The size of all allocated slabs in bytes.
+     * @since 1.1
+     */
+    public synchronized long getMemorySize() {
+        long size = 0;
+
+        for(ByteBuffer slab : slabs) {
+            if(slab != null) {
+                size += slab.capacity();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Getter for the operators of the sessions.
+     *
+     * @return The operators which the sessions understand.
+     * @since 1.1
+     */
+    public OperatorRegistry getOperators() {
+        return operators;
+    }
+
+    /**
+     * Sets the operators of all sessions.
+     *
+     * @param operators The operators which the sessions understand.
+     * @throws NullValueException If <b>operators</b> is null.
+     * @since 1.1
+     */
+    public void setOperators(OperatorRegistry operators) throws NullValueException {
+        if(operators == null) {
+            throw new NullValueException();
+        }
+
+        this.operators = operators;
+    }
+
+
+    /**
+     * Opens a session, whose current value is 0.0. The lowest free id is used, so closed ids are reused
+     * before new slabs are allocated.
+     *
+     * @return The id of the session.
+     * @throws IllegalStateException If there are already {@link #getCapacity()} open sessions.
+     * @since 1.1
+     */
+    public synchronized int open() {
+        if(sessionCount == capacity) {
+            throw new IllegalStateException("The pool is full!");
+        }
+
+        int word = firstFreeWord;
+        while(open[word] == -1L) {
+            word++;
+        }
+
+        int session = word * 64 + Long.numberOfTrailingZeros(~open[word]);
+        open[word] |= 1L << session;
+        sessionCount++;
+        firstFreeWord = word;
+
+        int index = session / SLAB_SESSIONS;
+        if(slabs[index] == null) {
+            int sessions = Math.min(SLAB_SESSIONS, capacity - index * SLAB_SESSIONS);
+            slabs[index] = ByteBuffer.allocateDirect(sessions * SESSION_SIZE).order(ByteOrder.nativeOrder());
+        }
+
+        slabs[index].putDouble(offset(session), 0.0);
+        return session;
+    }
+
+    /**
+     * Closes a session, so its id can be reused.
+     *
+     * @param session The id of the session.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public synchronized void close(int session) {
+        checkOpen(session);
+
+        int word = session >>> 6;
+        open[word] &= ~(1L << session);
+        sessionCount--;
+        firstFreeWord = Math.min(firstFreeWord, word);
+    }
+
+    /**
+     * Checks if a session is open.
+     *
+     * @param session The id of the session.
+     * @return <i>true</i> if the session is open.
+     * @since 1.1
+     */
+    public synchronized boolean isOpen(int session) {
+        return session >= 0 && session < capacity && (open[session >>> 6] & (1L << session)) != 0;
+    }
+
+
+    /**
+     * Getter for the current value of a session.
+     *
+     * @param session The id of the session.
+     * @return The current value.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public double getCurrentValue(int session) {
+        return slab(session).getDouble(offset(session));
+    }
+
+    /**
+     * Setter for the current value of a session.
+     *
+     * @param session The id of the session.
+     * @param value The value that is used to set the current value to.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public void setCurrentValue(int session, double value) {
+        slab(session).putDouble(offset(session), value);
+    }
+
+    /**
+     * Performs {@link Calculator#calculate(double, char)} on the current value of a session.
+     *
+     * @param session The id of the session.
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*', '/'
+     *                  and the binary operators registered in {@link #getOperators()}.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
+     * @throws ArithmeticException  If a registered binary operator does not accept the operands.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public void calculate(int session, double value, char operator) throws NotSupportedOperationException, DivisionByZeroException {
+        int status = tryCalculate(session, value, operator);
+
+        if(status == Status.DIVISION_BY_ZERO) {
+            throw new DivisionByZeroException("You can not divide by zero!");
+        }
+        else if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw new NotSupportedOperationException(Calculator.NOT_SUPPORTED_OPERATION_MESSAGE);
+        }
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw new ArithmeticException("The operands are not in the area of the operator " + operator + "!");
+        }
+    }
+
+    /**
+     * Same as {@link #calculate(int, double, char)}, but reports errors with a status code instead of throwing
+     * an exception. If there is an error, the current value is not changed.
+     *
+     * @param session The id of the session.
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands.
+     * @return {@link Status#OK}, {@link Status#DIVISION_BY_ZERO}, {@link Status#NOT_SUPPORTED_OPERATION},
+     *         or {@link Status#NUMBER_NOT_IN_AREA} if a registered binary operator threw an ArithmeticException.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public int tryCalculate(int session, double value, char operator) {
+        ByteBuffer slab = slab(session);
+        int offset = offset(session);
+        double current = slab.getDouble(offset);
+
+        int status = Calculator.binaryStatus(value, operator, operators);
+        if(status != Status.OK) {
+            return status;
+        }
+
+        try {
+            current = Calculator.binary(current, value, operator, operators);
+        }
+        catch(ArithmeticException e) {
+            return Status.NUMBER_NOT_IN_AREA;
+        }
+        slab.putDouble(offset, current);
+        return Status.OK;
+    }
+
+    /**
+     * Performs {@link CalculatorAdvanced#calculateAdvanced(char)} on the current value of a session.
+     *
+     * @param session The id of the session.
+     * @param action The operator that is used for calculation. Valid values are '!', '0' to '9'
+     *               and the unary operators registered in {@link #getOperators()}.
+     * @throws NotSupportedOperationException If <b>action</b> is not a valid value.
+     * @throws NumberNotInAreaException If the current value is not in-between the allowed range.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public void calculateAdvanced(int session, char action) throws NotSupportedOperationException, NumberNotInAreaException {
+        int status = tryCalculateAdvanced(session, action);
+
+        if(status == Status.NUMBER_NOT_IN_AREA && action == '!') {
+            throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+        }
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw new NumberNotInAreaException();
+        }
+        else if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw new NotSupportedOperationException();
+        }
+    }
+
+    /**
+     * Same as {@link #calculateAdvanced(int, char)}, but reports errors with a status code instead of throwing
+     * an exception. If there is an error, the current value is not changed.
+     *
+     * @param session The id of the session.
+     * @param action The operator that is used for calculation.
+     * @return {@link Status#OK}, {@link Status#NOT_SUPPORTED_OPERATION} or {@link Status#NUMBER_NOT_IN_AREA}.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public int tryCalculateAdvanced(int session, char action) {
+        ByteBuffer slab = slab(session);
+        int offset = offset(session);
+        double current = slab.getDouble(offset);
+
+        int status = CalculatorAdvanced.advancedStatus(current, action, operators);
+        if(status != Status.OK) {
+            return status;
+        }
+
+        try {
+            current = CalculatorAdvanced.advanced(current, action, operators);
+        }
+        catch(ArithmeticException e) {
+            return Status.NUMBER_NOT_IN_AREA;
+        }
+
+        slab.putDouble(offset, current);
+        return Status.OK;
+    }
+
+    /**
+     * Performs {@link CalculatorAdvanced#hasCharacteristic(char)} on the current value of a session.
+     *
+     * @param session The id of the session.
+     * @param value Denotes which check to perform. Valid values are
+     *              'A' to check if the number is an Armstrong number and
+     *              'P' to check if the number is Perfect.
+     * @return <i>true</i> if the whole part of the current value has the characteristic.
+     * @throws NotSupportedOperationException If <b>value</b> parameter is not a valid value.
+     * @throws NumberNotInAreaException If the current value is less than 1.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public boolean hasCharacteristic(int session, char value) throws NotSupportedOperationException, NumberNotInAreaException {
+        int status = tryHasCharacteristic(session, value);
+
+        if(status == Status.NOT_SUPPORTED_OPERATION) {
+            throw new NotSupportedOperationException();
+        }
+        else if(status == Status.NUMBER_NOT_IN_AREA) {
+            throw new NumberNotInAreaException();
+        }
+
+        return status == 1;
+    }
+
+    /**
+     * Same as {@link #hasCharacteristic(int, char)}, but reports the result and errors with a status code.
+     *
+     * @param session The id of the session.
+     * @param value Denotes which check to perform. Valid values are 'A' and 'P'.
+     * @return 1 if the number has the characteristic, 0 if it does not, or
+     *         {@link Status#NOT_SUPPORTED_OPERATION} or {@link Status#NUMBER_NOT_IN_AREA} if there is an error.
+     * @throws IllegalArgumentException If the session is not open.
+     * @since 1.1
+     */
+    public int tryHasCharacteristic(int session, char value) {
+        double current = getCurrentValue(session);
+
+        int status = CalculatorAdvanced.characteristicStatus(current, value);
+        if(status != Status.OK) {
+            return status;
+        }
+
+        return CalculatorAdvanced.characteristic((long) current, value) ? 1 : 0;
+    }
+
+
+    /**
+     * Returns the slab of an open session. The bitmap is read without locking: the bit of a session
+     * is set before its id is returned by {@link #open()}, so every thread that received the id sees it.
+     */
+    private ByteBuffer slab(int session) {
+        checkOpen(session);
+        return slabs[session / SLAB_SESSIONS];
+    }
+
+    private void checkOpen(int session) {
+        if(session < 0 || session >= capacity || (open[session >>> 6] & (1L << session)) == 0) {
+            throw new IllegalArgumentException("The session " + session + " is not open!");
+        }
+    }
+
+    private static int offset(int session) {
+        return (session % SLAB_SESSIONS) * SESSION_SIZE;
+    }
+}
@@ -0,0 +1,221 @@
+package calculators;
+
+
+import exceptions.NullValueException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+
+/**
+ * Processor which performs a stream of {@link Operation} events on a calculator and publishes its current value.
+ *<br>
+ * The current value is published after every <b>windowSize</b> operations and when the stream completes,
+ * so a window size of 1 publishes the running result and bigger windows publish fewer values.
+ * Operations that fail, like a division by zero, do not change the current value and are counted
+ * by {@link #getErrorCount()}.
+ *<br>
+ * -Backpressure: the processor requests operations from upstream only after it has performed them, and
+ * publishing blocks while a subscriber has <b>maxBufferCapacity</b> values which it has not requested.
+ * A slow subscriber therefore slows down the upstream, instead of making the buffers grow.<br>
+ * -Micro-batching: operations are requested in batches of <b>batchSize</b>. The next half of a batch is requested
+ * when half of the previous one is performed, so under load the upstream never waits for single requests.<br>
+ * -Closing: after {@link #close()} the subscription to upstream is cancelled, a new subscription is cancelled
+ * immediately, and operations which are still delivered are ignored. An operator which throws an exception,
+ * like a registered operator, cancels the subscription and closes the processor with that exception.<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorProcessor extends SubmissionPublisher<Double> implements Flow.Processor<Operation, Double> {
+    /**
+     * Number of operations requested from upstream at once by default.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final Calculator calculator;
+    private final int windowSize;
+    private final int batchSize;
+    private volatile Flow.Subscription subscription;
+    private int inWindow;
+    private int untilRequest;
+    private volatile long operationCount;
+    private volatile long errorCount;
+
+
+    /**
+     * Initializes a new processor which publishes with the common pool and the default buffer size.
+     *
+     * @param calculator The calculator on which the operations are performed.
+     * @param windowSize The number of operations after which the current value is published.
+     * @throws NullValueException If <b>calculator</b> is null.
+     * @throws IllegalArgumentException If <b>windowSize</b> is not positive.
+     * @since 1.1
+     */
+    public CalculatorProcessor(Calculator calculator, int windowSize) throws NullValueException {
+        this(calculator, windowSize, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Initializes a new processor.
+     *
+     * @param calculator The calculator on which the operations are performed.
+     * @param windowSize The number of operations after which the current value is published.
+     * @param batchSize The number of operations requested from upstream at once.
+     * @param executor The executor which delivers the values to the subscribers.
+     * @param maxBufferCapacity The maximum number of values buffered for each subscriber.
+     * @throws NullValueException If <b>calculator</b> or <b>executor</b> is null.
+     * @throws IllegalArgumentException If <b>windowSize</b>, <b>batchSize</b> or <b>maxBufferCapacity</b> is not positive.
+     * @since 1.1
+     */
+    public CalculatorProcessor(Calculator calculator, int windowSize, int batchSize, Executor executor, int maxBufferCapacity) throws NullValueException {
+        super(requireExecutor(executor), maxBufferCapacity);
+
+        if(calculator == null) {
+            throw new NullValueException();
+        }
+        if(windowSize < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("The window size and the batch size must be positive!");
+        }
+
+        this.calculator = calculator;
+        this.windowSize = windowSize;
+        this.batchSize = batchSize;
+    }
+
+
+    /**
+     * Getter for the calculator.
+     *
+     * @return The calculator on which the operations are performed.
+     * @since 1.1
+     */
+    public Calculator getCalculator() {
+        return calculator;
+    }
+
+    /**
+     * Getter for the window size.
+     *
+     * @return The number of operations after which the current value is published.
+     * @since 1.1
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Getter for the number of received operations.
+     *
+     * @return The number of operations received from upstream, including the failed ones.
+     * @since 1.1
+     */
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    /**
+     * Getter for the number of failed operations.
+     *
+     * @return The number of operations which returned an error status.
+     * @since 1.1
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if(this.subscription != null || isClosed()) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        this.untilRequest = Math.max(1, batchSize / 2);
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(Operation operation) {
+        if(isClosed()) {
+            return;
+        }
+
+        operationCount++;
+
+        try {
+            if(Status.isError(operation.applyTo(calculator))) {
+                errorCount++;
+            }
+        }
+        catch(RuntimeException e) {
+            subscription.cancel();
+            closeExceptionally(e);
+            return;
+        }
+
+        if(++inWindow == windowSize) {
+            inWindow = 0;
+            publish();
+        }
+
+        if(--untilRequest == 0) {
+            untilRequest = Math.max(1, batchSize / 2);
+            subscription.request(untilRequest);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if(inWindow != 0) {
+            inWindow = 0;
+            publish();
+        }
+
+        close();
+    }
+
+    /**
+     * Stops publishing and cancels the subscription to upstream.
+     *
+     * @since 1.1
+     */
+    @Override
+    public void close() {
+        if(subscription != null) {
+            subscription.cancel();
+        }
+
+        super.close();
+    }
+
+
+    /**
+     * Publishes the current value, unless the processor was closed by another thread.
+     */
+    private void publish() {
+        try {
+            submit(calculator.getCurrentValueAsDouble());
+        }
+        catch(IllegalStateException e) {
+            // Closed after the check in onNext, the value is dropped like the following operations.
+        }
+    }
+
+    private static Executor requireExecutor(Executor executor) throws NullValueException {
+        if(executor == null) {
+            throw new NullValueException();
+        }
+
+        return executor;
+    }
+}
@@ -0,0 +1,219 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Calculator with the same four basic arithmetic operations as {@link Calculator},
+ * which can be shared between threads without losing any updates.
+ *<br>
+ * The current value is kept as a sum of several cells, like in {@link java.util.concurrent.atomic.DoubleAdder}.
+ * Every thread adds and subtracts in its own cell with a compare-and-set, so additions from different
+ * threads do not wait for each other. Multiplication, division, setting and reading the current value
+ * need all cells, so they are performed one at a time and make new additions wait until they finish.
+ * Because of that every read returns a value that the calculator really had at some moment.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ConcurrentCalculator {
+    /**
+     * Distance between two cells in the array, so that each cell is in its own cache line.
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * Odd while an operation that needs all cells is in progress. Changed only while holding the lock of this object.
+     */
+    private volatile long version;
+
+
+    /**
+     * Initializes a new ConcurrentCalculator with a default current value set to 0.0
+     * and one cell for every available processor.
+     * @since 1.1
+     */
+    public ConcurrentCalculator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a new ConcurrentCalculator with a default current value set to 0.0.
+     *
+     * @param concurrency The expected number of threads that add at the same time.
+     *                    It is rounded up to a power of two.
+     * @throws IllegalArgumentException If <b>concurrency</b> is less than 1.
+     * @since 1.1
+     */
+    public ConcurrentCalculator(int concurrency) {
+        if(concurrency < 1) {
+            throw new IllegalArgumentException("There must be at least one cell!");
+        }
+
+        int count = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+        this.cells = new AtomicLongArray(count * PADDING);
+        this.mask = count - 1;
+    }
+
+
+    /**
+     * Getter for the current value.
+     *
+     * @return The current value.
+     * @since 1.1
+     */
+    public Double getCurrentValue() {
+        return getCurrentValueAsDouble();
+    }
+
+    /**
+     * Getter for the current value which does not box the result.
+     *
+     * @return The current value.
+     * @since 1.1
+     */
+    public synchronized double getCurrentValueAsDouble() {
+        version++;
+        try {
+            double sum = 0.0;
+
+            for(int i = 0; i <= mask; i++) {
+                sum += Double.longBitsToDouble(cells.get(i * PADDING));
+            }
+
+            return sum;
+        }
+        finally {
+            version++;
+        }
+    }
+
+    /**
+     * Setter for the current value. Value should not be null.
+     *
+     * @param value  The value that is used to set the current value to.
+     * @throws NullValueException  If the passed parameter is null.
+     * @since 1.1
+     */
+    public synchronized void setCurrentValue(Double value) throws NullValueException {
+        if(value == null) throw new NullValueException("Could not set currentValue to null!");
+
+        version++;
+        try {
+            drain();
+            add(0, value);
+        }
+        finally {
+            version++;
+        }
+    }
+
+
+    /**
+     * Provides four basic arithmetic operations: addition, subtraction, multiplication and division.
+     * The resulting value is set to <b>currentValue</b>.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
+     * @throws NullValueException  If <b>value</b> is null.
+     * @since 1.1
+     */
+    public void calculate(Double value, char operator) throws NotSupportedOperationException, DivisionByZeroException, NullValueException {
+        if(value == null) {
+            throw new NullValueException();
+        }
+
+        calculate(value.doubleValue(), operator);
+    }
+
+    /**
+     * Same as {@link #calculate(Double, char)}, but works with a primitive operand.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
+     * @since 1.1
+     */
+    public void calculate(double value, char operator) throws NotSupportedOperationException, DivisionByZeroException {
+        if(operator == '+') {
+            addFromThread(value);
+        }
+        else if(operator == '-') {
+            addFromThread(-value);
+        }
+        else if(operator == '*') {
+            scale(value, false);
+        }
+        else if(operator == '/') {
+            if(value == 0.0) {
+                throw new DivisionByZeroException("You can not divide by zero!");
+            }
+
+            scale(value, true);
+        }
+        else {
+            throw new NotSupportedOperationException(Calculator.NOT_SUPPORTED_OPERATION_MESSAGE);
+        }
+    }
+
+
+    /**
+     * Adds the value to the cell of the current thread. Waits while an operation that needs all cells is in progress.
+     */
+    private void addFromThread(double value) {
+        long id = Thread.currentThread().getId();
+        int index = (int) (id ^ (id >>> 16)) & mask;
+
+        while((version & 1) != 0) {
+            Thread.onSpinWait();
+        }
+
+        add(index, value);
+    }
+
+    private void add(int cell, double value) {
+        int index = cell * PADDING;
+        long previous;
+
+        do {
+            previous = cells.get(index);
+        } while(!cells.compareAndSet(index, previous, Double.doubleToRawLongBits(Double.longBitsToDouble(previous) + value)));
+    }
+
+    /**
+     * Multiplies or divides the sum of all cells and stores the result into the first cell.
+     */
+    private synchronized void scale(double value, boolean divide) {
+        version++;
+        try {
+            double sum = drain();
+            add(0, divide ? sum / value : sum * value);
+        }
+        finally {
+            version++;
+        }
+    }
+
+    /**
+     * Sets all cells to zero and returns their sum. Additions that started before the
+     * operation and finish after their cell was drained stay in the cell, so they are not lost.
+     */
+    private double drain() {
+        double sum = 0.0;
+
+        for(int i = 0; i <= mask; i++) {
+            sum += Double.longBitsToDouble(cells.getAndSet(i * PADDING, 0L));
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,488 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Expression written with the operators of the calculators, which is parsed once
+ * and can then be evaluated many times with different values of its variables.
+ *<br>
+ * -Supported operators are '+', '-', '*' and '/' with the usual precedence, unary '-',
+ * factorial '!' written after its operand and power '^' followed by a whole number, for example <i>x^3</i>.<br>
+ * -Variables are names made of letters, digits and '_' which start with a letter or '_'.
+ * Their values are passed to {@link #evaluate(double...)} in the order returned by {@link #getVariables()},
+ * which is the order in which they first appear in the expression.<br>
+ * -Parts of the expression without variables are calculated while compiling.<br>
+ * -Parentheses and unary '-' can be nested at most {@link #MAX_DEPTH} times.<br>
+ *<br>
+ * The compiled expression is a tree of nodes that only work with primitive values,
+ * so evaluating it does not allocate any objects. It can be evaluated from many threads at the same time.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class Expression {
+    /**
+     * Maximum number of nested parentheses and unary '-', which keeps the parser and the compiled tree from
+     * overflowing the stack.
+     */
+    public static final int MAX_DEPTH = 256;
+
+    private final String source;
+    private final String[] variables;
+    private final Node root;
+
+
+    private Expression(String source, String[] variables, Node root) {
+        this.source = source;
+        this.variables = variables;
+        this.root = root;
+    }
+
+
+    /**
+     * Parses and compiles the expression.
+     *
+     * @param source The expression, for example <i>(a + b) * c / d</i>.
+     * @return The compiled expression.
+     * @throws InvalidExpressionException If the expression is not written correctly.
+     * @throws NullValueException If <b>source</b> is null.
+     * @since 1.1
+     */
+    public static Expression compile(String source) throws InvalidExpressionException, NullValueException {
+        if(source == null) {
+            throw new NullValueException();
+        }
+
+        Parser parser = new Parser(source);
+        Node root = parser.parseExpression();
+        parser.skipWhitespace();
+
+        if(parser.position < source.length()) {
+            throw parser.error("Unexpected character '" + source.charAt(parser.position) + "'");
+        }
+
+        return new Expression(source, parser.variables.toArray(new String[0]), root);
+    }
+
+
+    /**
+     * Evaluates the expression. Pass the values as an array to avoid allocating one for every call.
+     *
+     * @param values The values of the variables, in the order returned by {@link #getVariables()}.
+     * @return The value of the expression.
+     * @throws DivisionByZeroException If the expression divides by zero.
+     * @throws NumberNotInAreaException If a factorial is calculated for a number that is negative or bigger than 170.
+     * @throws IllegalArgumentException If there are less values than variables.
+     * @since 1.1
+     */
+    public double evaluate(double... values) throws DivisionByZeroException, NumberNotInAreaException {
+        if(values.length < variables.length) {
+            throw new IllegalArgumentException("Expected " + variables.length + " values, but got " + values.length + "!");
+        }
+
+        return root.evaluate(values);
+    }
+
+    /**
+     * Getter for the names of the variables.
+     *
+     * @return The names of the variables, in the order in which their values are passed to {@link #evaluate(double...)}.
+     * @since 1.1
+     */
+    public String[] getVariables() {
+        return variables.clone();
+    }
+
+    /**
+     * Finds the position of the variable's value in the array passed to {@link #evaluate(double...)}.
+     *
+     * @param name The name of the variable.
+     * @return The index of the variable, or -1 if the expression does not use it.
+     * @since 1.1
+     */
+    public int indexOf(String name) {
+        for(int i = 0; i < variables.length; i++) {
+            if(variables[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the expression as it was written.
+     *
+     * @return The source of the expression.
+     */
+    @Override
+    public String toString() {
+        return source;
+    }
+
+
+    /**
+     * Compiled part of the expression.
+     */
+    private interface Node {
+        double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException;
+    }
+
+    private static final class Constant implements Node {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double evaluate(double[] values) {
+            return value;
+        }
+    }
+
+    private static final class Variable implements Node {
+        private final int index;
+
+        Variable(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public double evaluate(double[] values) {
+            return values[index];
+        }
+    }
+
+    private static final class Add implements Node {
+        private final Node left;
+        private final Node right;
+
+        Add(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            return left.evaluate(values) + right.evaluate(values);
+        }
+    }
+
+    private static final class Subtract implements Node {
+        private final Node left;
+        private final Node right;
+
+        Subtract(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            return left.evaluate(values) - right.evaluate(values);
+        }
+    }
+
+    private static final class Multiply implements Node {
+        private final Node left;
+        private final Node right;
+
+        Multiply(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            return left.evaluate(values) * right.evaluate(values);
+        }
+    }
+
+    private static final class Divide implements Node {
+        private final Node left;
+        private final Node right;
+
+        Divide(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            double dividend = left.evaluate(values);
+            double divisor = right.evaluate(values);
+
+            if(divisor == 0.0) {
+                throw new DivisionByZeroException("You can not divide by zero!");
+            }
+
+            return dividend / divisor;
+        }
+    }
+
+    private static final class Negate implements Node {
+        private final Node operand;
+
+        Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            return -operand.evaluate(values);
+        }
+    }
+
+    private static final class Factorial implements Node {
+        private final Node operand;
+
+        Factorial(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            double value = operand.evaluate(values);
+
+            if(value < 0.0 || value > CalculatorAdvanced.MAX_FACTORIAL) {
+                throw new NumberNotInAreaException("Impossible to calculate factorial of that number!");
+            }
+
+            return CalculatorAdvanced.factorial((int) value);
+        }
+    }
+
+    private static final class Power implements Node {
+        private final Node base;
+        private final long exponent;
+
+        Power(Node base, long exponent) {
+            this.base = base;
+            this.exponent = exponent;
+        }
+
+        @Override
+        public double evaluate(double[] values) throws DivisionByZeroException, NumberNotInAreaException {
+            return CalculatorAdvanced.pow(base.evaluate(values), exponent);
+        }
+    }
+
+
+    /**
+     * Recursive descent parser. Each method parses one level of precedence:
+     *<br>
+     * expression = term { ('+' | '-') term }<br>
+     * term       = unary { ('*' | '/') unary }<br>
+     * unary      = '-' unary | power<br>
+     * power      = postfix [ '^' ['-'] digits ]<br>
+     * postfix    = primary { '!' }<br>
+     * primary    = number | variable | '(' expression ')'<br>
+     */
+    private static final class Parser {
+        private final String source;
+        private final List<String> variables = new ArrayList<>();
+        private int position;
+        private int depth;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        Node parseExpression() throws InvalidExpressionException {
+            Node node = parseTerm();
+
+            for(char c = peek(); c == '+' || c == '-'; c = peek()) {
+                position++;
+                Node right = parseTerm();
+                node = fold(c == '+' ? new Add(node, right) : new Subtract(node, right), node, right);
+            }
+
+            return node;
+        }
+
+        private Node parseTerm() throws InvalidExpressionException {
+            Node node = parseUnary();
+
+            for(char c = peek(); c == '*' || c == '/'; c = peek()) {
+                position++;
+                Node right = parseUnary();
+                node = fold(c == '*' ? new Multiply(node, right) : new Divide(node, right), node, right);
+            }
+
+            return node;
+        }
+
+        private Node parseUnary() throws InvalidExpressionException {
+            if(peek() == '-') {
+                position++;
+                enter();
+                Node operand = parseUnary();
+                depth--;
+                return fold(new Negate(operand), operand, operand);
+            }
+
+            return parsePower();
+        }
+
+        private Node parsePower() throws InvalidExpressionException {
+            Node base = parsePostfix();
+
+            if(peek() != '^') {
+                return base;
+            }
+
+            position++;
+            skipWhitespace();
+            int start = position;
+
+            if(position < source.length() && source.charAt(position) == '-') {
+                position++;
+            }
+            while(position < source.length() && Character.isDigit(source.charAt(position))) {
+                position++;
+            }
+
+            long exponent;
+            try {
+                exponent = Long.parseLong(source.substring(start, position));
+            }
+            catch(NumberFormatException e) {
+                position = start;
+                throw error("Expected a whole number after '^'");
+            }
+
+            if(peek() == '^') {
+                throw error("Powers can not be chained, use parentheses");
+            }
+
+            return fold(new Power(base, exponent), base, base);
+        }
+
+        private Node parsePostfix() throws InvalidExpressionException {
+            Node node = parsePrimary();
+
+            while(peek() == '!') {
+                position++;
+                node = fold(new Factorial(node), node, node);
+            }
+
+            return node;
+        }
+
+        private Node parsePrimary() throws InvalidExpressionException {
+            char c = peek();
+
+            if(c == '(') {
+                position++;
+                enter();
+                Node node = parseExpression();
+
+                if(peek() != ')') {
+                    throw error("Expected ')'");
+                }
+
+                position++;
+                depth--;
+                return node;
+            }
+
+            if(Character.isDigit(c) || c == '.') {
+                return parseNumber();
+            }
+
+            if(Character.isLetter(c) || c == '_') {
+                int start = position;
+                while(position < source.length()
+                        && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+                    position++;
+                }
+
+                String name = source.substring(start, position);
+                int index = variables.indexOf(name);
+                if(index < 0) {
+                    index = variables.size();
+                    variables.add(name);
+                }
+
+                return new Variable(index);
+            }
+
+            throw error(c == 0 ? "Unexpected end of the expression" : "Unexpected character '" + c + "'");
+        }
+
+        private Node parseNumber() throws InvalidExpressionException {
+            int start = position;
+
+            while(position < source.length() && (Character.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+                position++;
+            }
+            if(position < source.length() && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+                position++;
+                if(position < source.length() && (source.charAt(position) == '+' || source.charAt(position) == '-')) {
+                    position++;
+                }
+                while(position < source.length() && Character.isDigit(source.charAt(position))) {
+                    position++;
+                }
+            }
+
+            try {
+                return new Constant(Double.parseDouble(source.substring(start, position)));
+            }
+            catch(NumberFormatException e) {
+                position = start;
+                throw error("Invalid number");
+            }
+        }
+
+        /**
+         * Replaces the node with its value if all of its operands are constants
+         * and it can be calculated without an error.
+         */
+        private static Node fold(Node node, Node left, Node right) {
+            if(!(left instanceof Constant) || !(right instanceof Constant)) {
+                return node;
+            }
+
+            try {
+                return new Constant(node.evaluate(null));
+            }
+            catch(DivisionByZeroException | NumberNotInAreaException e) {
+                return node;
+            }
+        }
+
+        /**
+         * Skips whitespace and returns the next character, or 0 at the end of the expression.
+         */
+        private char peek() {
+            skipWhitespace();
+            return position < source.length() ? source.charAt(position) : 0;
+        }
+
+        void skipWhitespace() {
+            while(position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Counts one more level of nesting.
+         */
+        private void enter() throws InvalidExpressionException {
+            if(++depth > MAX_DEPTH) {
+                throw error("The expression is nested more than " + MAX_DEPTH + " times");
+            }
+        }
+
+        InvalidExpressionException error(String message) {
+            return new InvalidExpressionException(message + " at position " + position + " in: " + source);
+        }
+    }
+}
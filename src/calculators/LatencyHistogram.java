@@ -0,0 +1,145 @@
+package calculators;
+
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Histogram of latencies in nanoseconds, which can be recorded from many threads at the same time.
+ *<br>
+ * Like an HDR histogram, the buckets are log-linear: values below {@link #SUB_BUCKETS} have a bucket each,
+ * and every range from 2^k to 2^(k+1) is split into {@link #SUB_BUCKETS} buckets of the same width.
+ * Because of that every percentile is reported with a relative error of at most 1/{@link #SUB_BUCKETS},
+ * for any value from 0 to {@link Long#MAX_VALUE}, while the histogram has less than a thousand buckets.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class LatencyHistogram {
+    /**
+     * Number of buckets for every power of two.
+     */
+    public static final int SUB_BUCKETS = 16;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+
+    /**
+     * Records one value. Negative values are recorded as 0.
+     *
+     * @param nanos The recorded latency.
+     * @since 1.1
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Getter for the number of recorded values.
+     *
+     * @return The number of recorded values.
+     * @since 1.1
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Getter for the biggest recorded value.
+     *
+     * @return The biggest recorded value, or 0 if no values were recorded.
+     * @since 1.1
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Getter for the mean of the recorded values.
+     *
+     * @return The mean of the recorded values, or 0.0 if no values were recorded.
+     * @since 1.1
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values are.
+     *
+     * @param percentile The percentage, from 0 to 100.
+     * @return The biggest value that is in the same bucket as the percentile, but at most {@link #getMax()}.
+     * @throws IllegalArgumentException If <b>percentile</b> is not in-between 0 and 100.
+     * @since 1.1
+     */
+    public long getValueAtPercentile(double percentile) {
+        if(!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("The percentile must be in-between 0 and 100!");
+        }
+
+        long highest = max.get();
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count.sum()));
+        long seen = 0;
+
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if(seen >= target) {
+                return Math.min(highestValue(i), highest);
+            }
+        }
+
+        return highest;
+    }
+
+    /**
+     * Removes all recorded values. Values recorded while resetting can be partly kept.
+     *
+     * @since 1.1
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+
+    private static int bucket(long value) {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValue(int bucket) {
+        if(bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,277 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Calculator which does not perform the operations when they are called, but records them
+ * and performs them only when the current value is read.
+ *<br>
+ * Consecutive additions and subtractions are fused into one addition, and consecutive multiplications
+ * and divisions into one multiplication, so <i>+3 +4 -2</i> is performed as <i>+5</i>
+ * and <i>*2 *3 /4 /5</i> as <i>*0.3</i>. This is useful for clients that send many small updates between reads.
+ * Fusing changes the order of the operations, so the result can differ from {@link Calculator}
+ * by rounding, or when an intermediate result overflows.
+ * An additive run is performed before its sum would overflow, and adding an infinite or a NaN value
+ * is performed immediately, so the fused sum is always finite. A multiplicative run is performed before
+ * its factor would overflow or underflow, and multiplying or dividing by zero, an infinite, a NaN
+ * or a subnormal value is performed immediately, so the fused factor is always a normal number.
+ * Therefore fusing never gives NaN or an infinite value where {@link Calculator} does not.
+ *<br>
+ * Errors are reported when the operation is called, like in {@link Calculator}. Operators registered
+ * in {@link #getOperators()} and the methods which work with arrays are performed immediately,
+ * after the recorded operations. While metrics are set, every operation is performed immediately,
+ * so that it can be measured.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class LazyCalculator extends Calculator {
+    private static final int NONE = 0;
+    private static final int ADDITIVE = 1;
+    private static final int MULTIPLICATIVE = 2;
+
+    /**
+     * Kind of the recorded run of operations.
+     */
+    private int pending = NONE;
+
+    /**
+     * Sum of the recorded additive run, or factor of the recorded multiplicative run.
+     */
+    private double operand;
+
+
+    /**
+     * Initializes a new LazyCalculator object with a default current value set to 0.0
+     * @since 1.1
+     */
+    public LazyCalculator() {
+        super();
+    }
+
+
+    /**
+     * Performs the recorded operations and returns the current value.
+     *
+     * @return The current value.
+     * @since 1.1
+     */
+    @Override
+    public Double getCurrentValue() {
+        flush();
+        return currentValue;
+    }
+
+    /**
+     * Performs the recorded operations and returns the current value without boxing it.
+     *
+     * @return The current value.
+     * @since 1.1
+     */
+    @Override
+    public double getCurrentValueAsDouble() {
+        flush();
+        return currentValue;
+    }
+
+    /**
+     * Setter for the current value. The recorded operations are discarded. Value should not be null.
+     *
+     * @param value  The value that is used to set the current value to.
+     * @throws NullValueException  If the passed parameter is null.
+     * @since 1.1
+     */
+    @Override
+    public void setCurrentValue(Double value) throws NullValueException {
+        super.setCurrentValue(value);
+        pending = NONE;
+    }
+
+    /**
+     * Restores the state written by {@link #writeTo(ByteBuffer)}. The recorded operations are discarded.
+     * If the state can not be read, the calculator is not changed.
+     *
+     * @param buffer The buffer from which the state is read, at its position.
+     * @throws java.nio.BufferUnderflowException If the buffer has less than {@link #STATE_SIZE} bytes remaining.
+     * @throws IllegalArgumentException If the state was written in an unsupported format version.
+     * @since 1.1
+     */
+    @Override
+    public void readFrom(ByteBuffer buffer) {
+        super.readFrom(buffer);
+        pending = NONE;
+    }
+
+    /**
+     * Checks if there are recorded operations which are not performed yet.
+     *
+     * @return <i>true</i> if reading the current value will perform an operation.
+     * @since 1.1
+     */
+    public boolean hasPendingOperations() {
+        return pending != NONE;
+    }
+
+    /**
+     * Performs the recorded operations.
+     *
+     * @since 1.1
+     */
+    public void flush() {
+        if(pending == ADDITIVE) {
+            currentValue += operand;
+        }
+        else if(pending == MULTIPLICATIVE) {
+            currentValue *= operand;
+        }
+
+        pending = NONE;
+    }
+
+
+    /**
+     * Same as {@link Calculator#tryCalculate(double, char)}, but records '+', '-', '*' and '/'
+     * instead of performing them.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*', '/'
+     *                  and the binary operators registered in {@link #getOperators()}.
+     * @return {@link Status#OK}, {@link Status#DIVISION_BY_ZERO}, {@link Status#NOT_SUPPORTED_OPERATION},
+     *         or {@link Status#NUMBER_NOT_IN_AREA} if a registered binary operator threw an ArithmeticException.
+     * @since 1.1
+     */
+    @Override
+    public int tryCalculate(double value, char operator) {
+        if(metrics != null) {
+            flush();
+            return super.tryCalculate(value, operator);
+        }
+
+        switch(operator) {
+            case '+': add(value); break;
+            case '-': add(-value); break;
+            case '*': multiply(value, false); break;
+            case '/':
+                if(value == 0.0) {
+                    return Status.DIVISION_BY_ZERO;
+                }
+                multiply(value, true);
+                break;
+            default:
+                flush();
+                return super.tryCalculate(value, operator);
+        }
+
+        if(operandObserver != null) {
+            operandObserver.accept(value);
+        }
+
+        return Status.OK;
+    }
+
+    @Override
+    int replay(double value, char operator) {
+        flush();
+        return super.replay(value, operator);
+    }
+
+    /**
+     * Performs the recorded operations and then {@link Calculator#calculateAll(double[], char[])}.
+     *
+     * @param operands  The second operands of each operation.
+     * @param operators  The operators of each operation.
+     * @return The index of the operation that tried to divide by zero, or -1 if all operations were applied.
+     * @throws NotSupportedOperationException  If one of the <b>operators</b> is not a valid value.
+     * @throws NullValueException  If any of the arrays is null.
+     * @since 1.1
+     */
+    @Override
+    public int calculateAll(double[] operands, char[] operators) throws NotSupportedOperationException, NullValueException {
+        flush();
+        return super.calculateAll(operands, operators);
+    }
+
+    /**
+     * Performs the recorded operations and then {@link Calculator#fold(double[], char)}.
+     *
+     * @param values  The second operands of each operation.
+     * @param operator  The operator used for every operation.
+     * @return The index of the value that is zero when dividing, or -1 if all operations were applied.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> is null.
+     * @since 1.1
+     */
+    @Override
+    public int fold(double[] values, char operator) throws NotSupportedOperationException, NullValueException {
+        flush();
+        return super.fold(values, operator);
+    }
+
+    /**
+     * Performs the recorded operations and then {@link Calculator#calculateParallel(double[], char, ParallelReducer)}.
+     *
+     * @param values  The values that are reduced.
+     * @param operator  The operator used for the reduction. Valid values are: '+' and '*'.
+     * @param reducer  The reducer that performs the reduction.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> or <b>reducer</b> is null.
+     * @since 1.1
+     */
+    @Override
+    public void calculateParallel(double[] values, char operator, ParallelReducer reducer) throws NotSupportedOperationException, NullValueException {
+        flush();
+        super.calculateParallel(values, operator, reducer);
+    }
+
+
+    private void add(double value) {
+        if(pending == ADDITIVE && Double.isFinite(operand + value)) {
+            operand += value;
+            return;
+        }
+
+        flush();
+        if(!Double.isFinite(value)) {
+            currentValue += value;
+            return;
+        }
+
+        pending = ADDITIVE;
+        operand = value;
+    }
+
+    private void multiply(double value, boolean divide) {
+        if(pending == MULTIPLICATIVE && !isNormalFactor(operand, value, divide)) {
+            flush();
+        }
+
+        if(pending != MULTIPLICATIVE) {
+            flush();
+            if(!isNormalFactor(1.0, value, divide)) {
+                currentValue = divide ? currentValue / value : currentValue * value;
+                return;
+            }
+            pending = MULTIPLICATIVE;
+            operand = 1.0;
+        }
+
+        operand = divide ? operand / value : operand * value;
+    }
+
+    /**
+     * Checks if the value is normal and if multiplying or dividing the factor by it certainly gives a normal number.
+     */
+    private static boolean isNormalFactor(double factor, double value, boolean divide) {
+        int exponent = Math.getExponent(value);
+        if(exponent < Double.MIN_EXPONENT || exponent > Double.MAX_EXPONENT) {
+            return false;
+        }
+
+        exponent = divide ? Math.getExponent(factor) - exponent : Math.getExponent(factor) + exponent;
+        return exponent > Double.MIN_EXPONENT && exponent < Double.MAX_EXPONENT;
+    }
+}
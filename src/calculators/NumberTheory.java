@@ -0,0 +1,293 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.util.Arrays;
+
+
+/**
+ * Number theory functions used by the advanced calculator: primality test, factorization and
+ * the sum of divisors.
+ *<br>
+ * -Numbers are factorized by trial division with divisors up to the square root of the number,
+ * but at most up to {@link #TRIAL_DIVISION_LIMIT}. The factors of what is left are found
+ * with Pollard's rho algorithm (Brent's variant) and checked with the Miller-Rabin test,
+ * which is deterministic for all long values.<br>
+ * -The sum of divisors σ(n) is calculated from the prime factorization:
+ * σ(p1^k1 * ... * pm^km) = (1 + p1 + ... + p1^k1) * ... * (1 + pm + ... + pm^km).<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class NumberTheory {
+    /**
+     * Divisors up to this value are tried before Pollard's rho algorithm is used.
+     */
+    public static final long TRIAL_DIVISION_LIMIT = 1 << 16;
+
+    /**
+     * Bases of the Miller-Rabin test that give the correct answer for every long value.
+     */
+    private static final long[] WITNESSES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+
+    private NumberTheory() {
+    }
+
+
+    /**
+     * Calculates the sum of all positive divisors of <b>n</b>, including <b>n</b> itself.
+     *
+     * @param n The number whose divisors are added.
+     * @return The sum of divisors of <b>n</b>.
+     * @throws NumberNotInAreaException If <b>n</b> is less than 1.
+     * @throws ArithmeticException If the sum does not fit in a long.
+     * @since 1.1
+     */
+    public static long sigma(long n) throws NumberNotInAreaException {
+        if(n < 1) {
+            throw new NumberNotInAreaException();
+        }
+
+        return sigmaUnchecked(n);
+    }
+
+    /**
+     * Same as {@link #sigma(long)}, without checking the argument.
+     */
+    private static long sigmaUnchecked(long n) {
+        long[] factors = factorUnchecked(n);
+        long result = 1;
+
+        for(int i = 0; i < factors.length; ) {
+            long prime = factors[i];
+            long power = 1;
+            long sum = 1;
+
+            for(; i < factors.length && factors[i] == prime; i++) {
+                power = Math.multiplyExact(power, prime);
+                sum = Math.addExact(sum, power);
+            }
+
+            result = Math.multiplyExact(result, sum);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks if the number is perfect, which means that σ(n) = 2n.
+     *
+     * @param n The number that will be checked.
+     * @return <i>true</i> if the number <b>is</b> perfect,<br>
+     *         <i>false</i> if the number <b>is not</b> perfect.
+     * @throws NumberNotInAreaException If <b>n</b> is less than 1.
+     * @since 1.1
+     */
+    public static boolean isPerfect(long n) throws NumberNotInAreaException {
+        if(n < 1) {
+            throw new NumberNotInAreaException();
+        }
+
+        return isPerfectUnchecked(n);
+    }
+
+    /**
+     * Same as {@link #isPerfect(long)}, without checking the argument.
+     *
+     * @param n The number that will be checked, at least 1.
+     * @return <i>true</i> if the number <b>is</b> perfect.
+     * @since 1.1
+     */
+    static boolean isPerfectUnchecked(long n) {
+        // Odd perfect numbers, if they exist at all, are known to be bigger than 10^1500,
+        // and 2n does not fit in a long for n > Long.MAX_VALUE / 2.
+        if((n & 1) != 0 || n > Long.MAX_VALUE / 2) {
+            return false;
+        }
+
+        try {
+            return sigmaUnchecked(n) == 2 * n;
+        }
+        catch(ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the number is prime.
+     *
+     * @param n The number that will be checked.
+     * @return <i>true</i> if the number <b>is</b> prime,<br>
+     *         <i>false</i> if the number <b>is not</b> prime.
+     * @since 1.1
+     */
+    public static boolean isPrime(long n) {
+        if(n < 2) {
+            return false;
+        }
+
+        for(long witness : WITNESSES) {
+            if(n % witness == 0) {
+                return n == witness;
+            }
+        }
+
+        if(n < 37 * 37) {
+            return true;
+        }
+
+        long d = n - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>= s;
+
+        for(long witness : WITNESSES) {
+            long x = CalculatorAdvanced.modPowUnchecked(witness, d, n);
+
+            if(x == 1 || x == n - 1) {
+                continue;
+            }
+
+            boolean composite = true;
+            for(int r = 1; r < s && composite; r++) {
+                x = CalculatorAdvanced.multiplyMod(x, x, n);
+                composite = x != n - 1;
+            }
+
+            if(composite) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds the prime factorization of the number.
+     *
+     * @param n The number that is factorized.
+     * @return The prime factors of <b>n</b> in ascending order, each repeated as many times as it divides <b>n</b>.
+     *         For 1 the array is empty.
+     * @throws NumberNotInAreaException If <b>n</b> is less than 1.
+     * @since 1.1
+     */
+    public static long[] factor(long n) throws NumberNotInAreaException {
+        if(n < 1) {
+            throw new NumberNotInAreaException();
+        }
+
+        return factorUnchecked(n);
+    }
+
+
+    /**
+     * Same as {@link #factor(long)}, without checking the argument.
+     */
+    private static long[] factorUnchecked(long n) {
+        long[] factors = new long[Long.SIZE];
+        int count = 0;
+
+        for(; (n & 1) == 0; n >>= 1) {
+            factors[count++] = 2;
+        }
+
+        long divisor = 3;
+        for(; divisor <= TRIAL_DIVISION_LIMIT && divisor * divisor <= n; divisor += 2) {
+            for(; n % divisor == 0; n /= divisor) {
+                factors[count++] = divisor;
+            }
+        }
+
+        if(n > 1) {
+            if(divisor * divisor > n) {
+                factors[count++] = n;
+            }
+            else {
+                count = factorLarge(n, factors, count);
+            }
+        }
+
+        factors = Arrays.copyOf(factors, count);
+        Arrays.sort(factors);
+        return factors;
+    }
+
+
+    /**
+     * Finds the prime factors of a number which has no small factors and stores them into <b>factors</b>.
+     *
+     * @return The new number of factors in <b>factors</b>.
+     */
+    private static int factorLarge(long n, long[] factors, int count) {
+        if(isPrime(n)) {
+            factors[count++] = n;
+            return count;
+        }
+
+        long divisor = rho(n);
+        count = factorLarge(divisor, factors, count);
+        return factorLarge(n / divisor, factors, count);
+    }
+
+    /**
+     * Finds a non-trivial divisor of an odd composite number with Brent's variant of Pollard's rho algorithm.
+     */
+    private static long rho(long n) {
+        final int batch = 128;
+
+        for(long c = 1; ; c++) {
+            long y = 2;
+            long x = y;
+            long saved = y;
+            long product = 1;
+            long gcd = 1;
+
+            for(int r = 1; gcd == 1; r <<= 1) {
+                x = y;
+                for(int i = 0; i < r; i++) {
+                    y = next(y, c, n);
+                }
+
+                for(int k = 0; k < r && gcd == 1; k += batch) {
+                    saved = y;
+                    for(int i = 0; i < Math.min(batch, r - k); i++) {
+                        y = next(y, c, n);
+                        product = CalculatorAdvanced.multiplyMod(product, Math.abs(x - y), n);
+                    }
+                    gcd = gcd(product, n);
+                }
+            }
+
+            if(gcd == n) {
+                // The batch skipped over the divisor, so repeat its steps one by one.
+                do {
+                    saved = next(saved, c, n);
+                    gcd = gcd(Math.abs(x - saved), n);
+                } while(gcd == 1);
+            }
+
+            if(gcd != n) {
+                return gcd;
+            }
+        }
+    }
+
+    /**
+     * The pseudo-random function of Pollard's rho algorithm: (y * y + c) mod n.
+     */
+    private static long next(long y, long c, long n) {
+        long square = CalculatorAdvanced.multiplyMod(y, y, n);
+        return square >= n - c ? square - (n - c) : square + c;
+    }
+
+    private static long gcd(long a, long b) {
+        while(b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a;
+    }
+}
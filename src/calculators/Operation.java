@@ -0,0 +1,103 @@
+package calculators;
+
+
+/**
+ * One operation of a calculator, which can be sent as an event, for example to a {@link CalculatorProcessor}.
+ *<br>
+ * -Basic operations are performed with {@link Calculator#calculate(double, char)}.<br>
+ * -Advanced operations have no operand and are performed with {@link CalculatorAdvanced#calculateAdvanced(char)}.<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class Operation {
+    private final char operator;
+    private final double operand;
+    private final boolean advanced;
+
+
+    private Operation(char operator, double operand, boolean advanced) {
+        this.operator = operator;
+        this.operand = operand;
+        this.advanced = advanced;
+    }
+
+
+    /**
+     * Creates a basic operation.
+     *
+     * @param operator The operator, for example '+'.
+     * @param operand The second operand.
+     * @return The operation.
+     * @since 1.1
+     */
+    public static Operation of(char operator, double operand) {
+        return new Operation(operator, operand, false);
+    }
+
+    /**
+     * Creates an advanced operation.
+     *
+     * @param action The operator, for example '!'.
+     * @return The operation.
+     * @since 1.1
+     */
+    public static Operation advanced(char action) {
+        return new Operation(action, 0.0, true);
+    }
+
+
+    /**
+     * Getter for the operator.
+     *
+     * @return The operator.
+     * @since 1.1
+     */
+    public char getOperator() {
+        return operator;
+    }
+
+    /**
+     * Getter for the operand.
+     *
+     * @return The second operand, or 0.0 for advanced operations.
+     * @since 1.1
+     */
+    public double getOperand() {
+        return operand;
+    }
+
+    /**
+     * Checks if the operation is advanced.
+     *
+     * @return <i>true</i> if the operation is performed with {@link CalculatorAdvanced#calculateAdvanced(char)}.
+     * @since 1.1
+     */
+    public boolean isAdvanced() {
+        return advanced;
+    }
+
+    /**
+     * Performs the operation on the calculator.
+     *
+     * @param calculator The calculator.
+     * @return The status of the operation, see {@link Calculator#tryCalculate(double, char)}
+     *         and {@link CalculatorAdvanced#tryCalculateAdvanced(char)}. Advanced operations on a calculator
+     *         which is not a {@link CalculatorAdvanced} return {@link Status#NOT_SUPPORTED_OPERATION}.
+     * @since 1.1
+     */
+    public int applyTo(Calculator calculator) {
+        if(!advanced) {
+            return calculator.tryCalculate(operand, operator);
+        }
+
+        return calculator instanceof CalculatorAdvanced
+                ? ((CalculatorAdvanced) calculator).tryCalculateAdvanced(operator)
+                : Status.NOT_SUPPORTED_OPERATION;
+    }
+
+    @Override
+    public String toString() {
+        return advanced ? String.valueOf(operator) : operator + " " + operand;
+    }
+}
@@ -0,0 +1,457 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Journal of the operations performed on a calculator, which can undo and redo them
+ * and replay them on another calculator.
+ *<br>
+ * -The operations are performed through the journal, which passes them to the calculator and records
+ * every operation that succeeded. Setting the current value, binary operations and advanced operations are
+ * recorded with their kind, so any character can be registered as an operator.
+ * Operations performed directly on the calculator are not recorded and are lost by the next undo.<br>
+ * -The operators and operands are kept in primitive ring buffers of a fixed capacity. When the journal is full,
+ * the oldest {@link #getCheckpointInterval()} operations are dropped, so the memory used does not grow.<br>
+ * -Before every {@link #getCheckpointInterval()}-th operation the current value is saved as a checkpoint.
+ * Undo restores the last checkpoint before the wanted operation and performs the operations after it again,
+ * so it never performs more than {@link #getCheckpointInterval()} - 1 operations.<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class OperationJournal {
+    /**
+     * Capacity of journals that are created without one.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+
+    /**
+     * Checkpoint interval of journals that are created without one.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    private static final byte SET = 0;
+    private static final byte BINARY = 1;
+    private static final byte ADVANCED = 2;
+
+    /**
+     * Number of bytes of a written operation: the kind, the operator and the operand.
+     */
+    private static final int ENTRY_BYTES = 1 + Character.BYTES + Double.BYTES;
+
+    private final Calculator calculator;
+    private final int interval;
+    private final byte[] kinds;
+    private final char[] operators;
+    private final double[] operands;
+    private final double[] checkpoints;
+
+    /**
+     * Sequence number of the oldest recorded operation, always a multiple of the checkpoint interval.
+     */
+    private long first;
+
+    /**
+     * Sequence number of the next operation to undo plus one, which is the number of performed operations.
+     */
+    private long position;
+
+    /**
+     * Sequence number of the last recorded operation plus one. Operations in-between
+     * <b>position</b> and <b>end</b> were undone and can be redone.
+     */
+    private long end;
+
+
+    /**
+     * Initializes a new OperationJournal with the {@link #DEFAULT_CAPACITY} and the {@link #DEFAULT_CHECKPOINT_INTERVAL}.
+     *
+     * @param calculator The calculator whose operations are recorded.
+     * @throws NullValueException If <b>calculator</b> is null.
+     * @since 1.1
+     */
+    public OperationJournal(Calculator calculator) throws NullValueException {
+        this(calculator, DEFAULT_CAPACITY, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Initializes a new OperationJournal.
+     *
+     * @param calculator The calculator whose operations are recorded.
+     * @param capacity The maximum number of recorded operations. It is rounded up to a multiple of <b>checkpointInterval</b>.
+     * @param checkpointInterval The number of operations between two checkpoints.
+     * @throws NullValueException If <b>calculator</b> is null.
+     * @throws IllegalArgumentException If <b>capacity</b> or <b>checkpointInterval</b> is less than 1.
+     * @since 1.1
+     */
+    public OperationJournal(Calculator calculator, int capacity, int checkpointInterval) throws NullValueException {
+        if(calculator == null) {
+            throw new NullValueException();
+        }
+        if(capacity < 1 || checkpointInterval < 1) {
+            throw new IllegalArgumentException("The capacity and the checkpoint interval must be at least 1!");
+        }
+
+        int blocks = (int) Math.min((capacity + (long) checkpointInterval - 1) / checkpointInterval,
+                Integer.MAX_VALUE / checkpointInterval);
+
+        this.calculator = calculator;
+        this.interval = checkpointInterval;
+        this.kinds = new byte[blocks * checkpointInterval];
+        this.operators = new char[blocks * checkpointInterval];
+        this.operands = new double[blocks * checkpointInterval];
+        this.checkpoints = new double[blocks];
+    }
+
+
+    /**
+     * Getter for the calculator.
+     *
+     * @return The calculator whose operations are recorded.
+     * @since 1.1
+     */
+    public Calculator getCalculator() {
+        return calculator;
+    }
+
+    /**
+     * Getter for the capacity.
+     *
+     * @return The maximum number of recorded operations.
+     * @since 1.1
+     */
+    public int getCapacity() {
+        return operators.length;
+    }
+
+    /**
+     * Getter for the checkpoint interval.
+     *
+     * @return The number of operations between two checkpoints.
+     * @since 1.1
+     */
+    public int getCheckpointInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the number of recorded operations, including the ones that can be redone.
+     *
+     * @return The number of recorded operations.
+     * @since 1.1
+     */
+    public int size() {
+        return (int) (end - first);
+    }
+
+
+    /**
+     * Sets the current value of the calculator and records it.
+     *
+     * @param value The value that is used to set the current value to.
+     * @throws NullValueException If the passed parameter is null.
+     * @since 1.1
+     */
+    public void setCurrentValue(Double value) throws NullValueException {
+        double before = calculator.getCurrentValueAsDouble();
+        calculator.setCurrentValue(value);
+        record(SET, '=', value, before);
+    }
+
+    /**
+     * Performs {@link Calculator#calculate(double, char)} and records it if it succeeds.
+     *
+     * @param value  The second operand in the mathematical expression.
+     * @param operator  The operator in-between the operands. Valid values are: '+', '-', '*' and '/'.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws DivisionByZeroException  If <b>value</b> is zero and <b>operator</b> is '/'.
+     * @throws ArithmeticException  If a registered binary operator does not accept the operands.
+     * @since 1.1
+     */
+    public void calculate(double value, char operator) throws NotSupportedOperationException, DivisionByZeroException {
+        double before = calculator.getCurrentValueAsDouble();
+        calculator.calculate(value, operator);
+        record(BINARY, operator, value, before);
+    }
+
+    /**
+     * Performs {@link CalculatorAdvanced#calculateAdvanced(char)} and records it if it succeeds.
+     *
+     * @param action The operator that is used for calculation. Valid values are '!', '0' to '9'
+     *               and the unary operators registered in {@link Calculator#getOperators()}.
+     * @throws NotSupportedOperationException If <b>action</b> is not a valid value, or the calculator
+     *                                        is not a {@link CalculatorAdvanced}.
+     * @throws NumberNotInAreaException If the current value is not in-between the allowed range.
+     * @since 1.1
+     */
+    public void calculateAdvanced(char action) throws NotSupportedOperationException, NumberNotInAreaException {
+        if(!(calculator instanceof CalculatorAdvanced)) {
+            throw new NotSupportedOperationException("Advanced operations need a CalculatorAdvanced!");
+        }
+
+        double before = calculator.getCurrentValueAsDouble();
+        ((CalculatorAdvanced) calculator).calculateAdvanced(action);
+        record(ADVANCED, action, 0.0, before);
+    }
+
+
+    /**
+     * Checks if there is an operation that can be undone.
+     *
+     * @return <i>true</i> if {@link #undo()} will undo an operation.
+     * @since 1.1
+     */
+    public boolean canUndo() {
+        return position > first;
+    }
+
+    /**
+     * Checks if there is an undone operation that can be redone.
+     *
+     * @return <i>true</i> if {@link #redo()} will redo an operation.
+     * @since 1.1
+     */
+    public boolean canRedo() {
+        return position < end;
+    }
+
+    /**
+     * Undoes the last performed operation and restores the current value that the calculator had before it.
+     *
+     * @return <i>false</i> if there was no operation to undo.
+     * @since 1.1
+     */
+    public boolean undo() {
+        if(!canUndo()) {
+            return false;
+        }
+
+        position--;
+        long checkpoint = position - position % interval;
+        restore(calculator, checkpoint);
+
+        for(long i = checkpoint; i < position; i++) {
+            apply(calculator, i);
+        }
+
+        return true;
+    }
+
+    /**
+     * Performs the last undone operation again.
+     *
+     * @return <i>false</i> if there was no operation to redo.
+     * @since 1.1
+     */
+    public boolean redo() {
+        if(!canRedo()) {
+            return false;
+        }
+
+        apply(calculator, position++);
+        return true;
+    }
+
+    /**
+     * Sets the current value of <b>target</b> to the value before the oldest recorded operation and
+     * performs all recorded operations up to the current one on it. Undone operations are not performed.
+     *
+     * @param target The calculator on which the operations are performed.
+     * @return The number of performed operations.
+     * @throws NullValueException If <b>target</b> is null.
+     * @throws NotSupportedOperationException If an operation to perform is advanced and <b>target</b> is not
+     *                                        a {@link CalculatorAdvanced}. The target is not changed.
+     * @since 1.1
+     */
+    public int replay(Calculator target) throws NullValueException, NotSupportedOperationException {
+        if(target == null) {
+            throw new NullValueException();
+        }
+        if(end == first) {
+            return 0;
+        }
+        if(!(target instanceof CalculatorAdvanced)) {
+            for(long i = first; i < position; i++) {
+                if(kinds[(int) (i % kinds.length)] == ADVANCED) {
+                    throw new NotSupportedOperationException("Advanced operations need a CalculatorAdvanced!");
+                }
+            }
+        }
+
+        restore(target, first);
+        for(long i = first; i < position; i++) {
+            apply(target, i);
+        }
+
+        return (int) (position - first);
+    }
+
+    /**
+     * Returns the number of bytes that {@link #writeTo(ByteBuffer)} writes.
+     *
+     * @return The size of the written journal in bytes.
+     * @since 1.1
+     */
+    public int getStateSize() {
+        return 1 + Integer.BYTES + 3 * Long.BYTES + size() * ENTRY_BYTES + blocks() * Double.BYTES;
+    }
+
+    /**
+     * Writes the recorded operations, the checkpoints and the position of the journal in {@link #getStateSize()} bytes.
+     * The calculator is not written, see {@link Calculator#writeTo(ByteBuffer)}.
+     *
+     * @param buffer The buffer to which the journal is written, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer does not have enough bytes remaining.
+     * @since 1.1
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(Calculator.STATE_VERSION)
+                .putInt(interval)
+                .putLong(first)
+                .putLong(position)
+                .putLong(end);
+
+        for(long i = first; i < end; i++) {
+            int index = (int) (i % operators.length);
+            buffer.put(kinds[index]).putChar(operators[index]).putDouble(operands[index]);
+        }
+        for(long block = first / interval; block < first / interval + blocks(); block++) {
+            buffer.putDouble(checkpoints[(int) (block % checkpoints.length)]);
+        }
+    }
+
+    /**
+     * Replaces the recorded operations with the ones written by {@link #writeTo(ByteBuffer)}, possibly by a journal
+     * on another machine. The journal must have the same checkpoint interval and a big enough capacity.
+     * The calculator is not changed, see {@link Calculator#readFrom(ByteBuffer)}.
+     * If the journal can not be read, it is not changed.
+     *
+     * @param buffer The buffer from which the journal is read, at its position.
+     * @throws BufferUnderflowException If the buffer does not have enough bytes remaining.
+     * @throws IllegalArgumentException If the journal was written in an unsupported format version,
+     *                                  with another checkpoint interval or with more operations than the capacity,
+     *                                  or with advanced operations for a calculator that is not a {@link CalculatorAdvanced}.
+     * @since 1.1
+     */
+    public void readFrom(ByteBuffer buffer) {
+        Calculator.checkStateVersion(buffer.get());
+        int readInterval = buffer.getInt();
+        long readFirst = buffer.getLong();
+        long readPosition = buffer.getLong();
+        long readEnd = buffer.getLong();
+
+        if(readInterval != interval) {
+            throw new IllegalArgumentException("The journal was written with the checkpoint interval " + readInterval + "!");
+        }
+        if(readFirst < 0 || readFirst % interval != 0 || readPosition < readFirst || readEnd < readPosition
+                || readEnd - readFirst > operators.length) {
+            throw new IllegalArgumentException("The journal does not fit in the capacity or is corrupted!");
+        }
+
+        int count = (int) (readEnd - readFirst);
+        int blockCount = (int) ((readEnd + interval - 1) / interval - readFirst / interval);
+        if(buffer.remaining() < count * ENTRY_BYTES + blockCount * Double.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        for(int i = 0; i < count; i++) {
+            byte kind = buffer.get(buffer.position() + i * ENTRY_BYTES);
+            if(kind != SET && kind != BINARY && kind != ADVANCED) {
+                throw new IllegalArgumentException("The journal does not fit in the capacity or is corrupted!");
+            }
+            if(kind == ADVANCED && !(calculator instanceof CalculatorAdvanced)) {
+                throw new IllegalArgumentException("The journal has advanced operations, which need a CalculatorAdvanced!");
+            }
+        }
+
+        for(long i = readFirst; i < readEnd; i++) {
+            int index = (int) (i % operators.length);
+            kinds[index] = buffer.get();
+            operators[index] = buffer.getChar();
+            operands[index] = buffer.getDouble();
+        }
+        for(long block = readFirst / interval; block < readFirst / interval + blockCount; block++) {
+            checkpoints[(int) (block % checkpoints.length)] = buffer.getDouble();
+        }
+
+        first = readFirst;
+        position = readPosition;
+        end = readEnd;
+    }
+
+    /**
+     * Removes all recorded operations. The current value of the calculator is not changed.
+     *
+     * @since 1.1
+     */
+    public void clear() {
+        first = 0;
+        position = 0;
+        end = 0;
+    }
+
+
+    /**
+     * Records an operation that was performed, dropping the operations that could be redone.
+     */
+    private void record(byte kind, char operator, double operand, double before) {
+        end = position;
+
+        if(end - first == operators.length) {
+            first += interval;
+        }
+        if(end % interval == 0) {
+            checkpoints[(int) (end / interval % checkpoints.length)] = before;
+        }
+
+        int index = (int) (end % operators.length);
+        kinds[index] = kind;
+        operators[index] = operator;
+        operands[index] = operand;
+        position = ++end;
+    }
+
+    /**
+     * Returns the number of checkpoints of the recorded operations.
+     */
+    private int blocks() {
+        return (int) ((end + interval - 1) / interval - first / interval);
+    }
+
+    private void restore(Calculator target, long checkpoint) {
+        set(target, checkpoints[(int) (checkpoint / interval % checkpoints.length)]);
+    }
+
+    /**
+     * Performs the recorded operation again. It can not fail, because it succeeded when it was recorded
+     * with the same current value. It is not recorded to the metrics or the operand observer of the target again.
+     * Advanced operations are only recorded and replayed on a {@link CalculatorAdvanced}.
+     */
+    private void apply(Calculator target, long sequence) {
+        int index = (int) (sequence % operators.length);
+
+        if(kinds[index] == SET) {
+            set(target, operands[index]);
+        }
+        else if(kinds[index] == BINARY) {
+            target.replay(operands[index], operators[index]);
+        }
+        else {
+            ((CalculatorAdvanced) target).replayAdvanced(operators[index]);
+        }
+    }
+
+    private static void set(Calculator target, double value) {
+        try {
+            target.setCurrentValue(value);
+        }
+        catch(NullValueException e) {
+            // A boxed double is never null.
+            throw new AssertionError(e);
+        }
+    }
+}
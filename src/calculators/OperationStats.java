@@ -0,0 +1,126 @@
+package calculators;
+
+
+/**
+ * Statistics of one operation recorded by {@link CalculatorMetrics}, taken at one moment.
+ * The latencies are in nanoseconds.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class OperationStats {
+    private final char operator;
+    private final long count;
+    private final long divisionByZeroErrors;
+    private final long notSupportedErrors;
+    private final long notInAreaErrors;
+    private final double meanNanos;
+    private final long medianNanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+    private final double slowestInput;
+
+
+    OperationStats(char operator, long count, long divisionByZeroErrors, long notSupportedErrors, long notInAreaErrors,
+                   LatencyHistogram latency, double slowestInput) {
+        this.operator = operator;
+        this.count = count;
+        this.divisionByZeroErrors = divisionByZeroErrors;
+        this.notSupportedErrors = notSupportedErrors;
+        this.notInAreaErrors = notInAreaErrors;
+        this.meanNanos = latency.getMean();
+        this.medianNanos = latency.getValueAtPercentile(50.0);
+        this.p99Nanos = latency.getValueAtPercentile(99.0);
+        this.maxNanos = latency.getMax();
+        this.slowestInput = slowestInput;
+    }
+
+
+    /**
+     * @return The operator, the action of {@link CalculatorAdvanced#calculateAdvanced(char)} or the characteristic
+     *         of {@link CalculatorAdvanced#hasCharacteristic(char)}.
+     * @since 1.1
+     */
+    public char getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return The number of times the operation was performed, including the ones with an error.
+     * @since 1.1
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The number of errors that match {@link exceptions.DivisionByZeroException}.
+     * @since 1.1
+     */
+    public long getDivisionByZeroErrors() {
+        return divisionByZeroErrors;
+    }
+
+    /**
+     * @return The number of errors that match {@link exceptions.NotSupportedOperationException}.
+     * @since 1.1
+     */
+    public long getNotSupportedErrors() {
+        return notSupportedErrors;
+    }
+
+    /**
+     * @return The number of errors that match {@link exceptions.NumberNotInAreaException}.
+     * @since 1.1
+     */
+    public long getNotInAreaErrors() {
+        return notInAreaErrors;
+    }
+
+    /**
+     * @return The mean latency.
+     * @since 1.1
+     */
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    /**
+     * @return The median latency.
+     * @since 1.1
+     */
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    /**
+     * @return The 99th percentile of the latency.
+     * @since 1.1
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * @return The biggest latency.
+     * @since 1.1
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return The operand, or the current value for advanced operations, of the slowest operation.
+     * @since 1.1
+     */
+    public double getSlowestInput() {
+        return slowestInput;
+    }
+
+    @Override
+    public String toString() {
+        return "'" + operator + "': count=" + count + ", errors=" + (divisionByZeroErrors + notSupportedErrors + notInAreaErrors)
+                + ", mean=" + meanNanos + "ns, median=" + medianNanos + "ns, p99=" + p99Nanos + "ns, max=" + maxNanos
+                + "ns, slowestInput=" + slowestInput;
+    }
+}
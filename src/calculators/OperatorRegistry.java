@@ -0,0 +1,213 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+
+/**
+ * Table of the operators that calculators understand, indexed by the operator character.
+ *<br>
+ * -Binary operators are used by {@link Calculator#calculate(double, char)}, as <i>currentValue = f(currentValue, value)</i>.
+ * They should report invalid operands with NaN, like the functions of {@link Math}. An ArithmeticException
+ * is reported by {@link Calculator#tryCalculate(double, char)} as {@link Status#NUMBER_NOT_IN_AREA}.<br>
+ * -Unary operators are used by {@link CalculatorAdvanced#calculateAdvanced(char)}, as <i>currentValue = f(currentValue)</i>.
+ * They can throw an ArithmeticException for a value that is not in-between the allowed range,
+ * which is reported as {@link exceptions.NumberNotInAreaException}.<br>
+ * -The built-in operators '+', '-', '*', '/', '!' and '0' to '9' can not be registered. The calculators perform them
+ * directly, with their own errors, so they are not in the registry and registering custom operators does not slow them down.<br>
+ * -Operators are ASCII characters and every character is either a binary or a unary operator.
+ * Looking up an operator is one array access.<br>
+ *<br>
+ * For example, a calculator with a modulo operator and a square root is created with:<br>
+ * <i>calculator.setOperators(new OperatorRegistry().registerBinary('%', (a, b) -&gt; a % b).registerUnary('r', Math::sqrt));</i>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class OperatorRegistry {
+    /**
+     * Number of characters that can be operators.
+     */
+    public static final int SIZE = 128;
+
+    private static final OperatorRegistry DEFAULTS = new OperatorRegistry().freeze();
+
+    private final DoubleBinaryOperator[] binary;
+    private final DoubleUnaryOperator[] unary;
+    private final boolean frozen;
+
+
+    /**
+     * Initializes a new registry without custom operators, to which custom operators can be registered.
+     * @since 1.1
+     */
+    public OperatorRegistry() {
+        this.binary = new DoubleBinaryOperator[SIZE];
+        this.unary = new DoubleUnaryOperator[SIZE];
+        this.frozen = false;
+    }
+
+    private OperatorRegistry(OperatorRegistry other, boolean frozen) {
+        this.binary = other.binary.clone();
+        this.unary = other.unary.clone();
+        this.frozen = frozen;
+    }
+
+
+    /**
+     * Returns the frozen registry without custom operators, which calculators use by default.
+     *
+     * @return The default registry.
+     * @since 1.1
+     */
+    public static OperatorRegistry defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Checks if the operator is built-in.
+     *
+     * @param operator The operator.
+     * @return <i>true</i> if the operator is one of '+', '-', '*', '/', '!' or '0' to '9'.
+     * @since 1.1
+     */
+    public static boolean isBuiltIn(char operator) {
+        return operator == '+' || operator == '-' || operator == '*' || operator == '/' || operator == '!'
+                || (operator >= '0' && operator <= '9');
+    }
+
+    /**
+     * Creates a registry with the same operators, to which more operators can be registered.
+     *
+     * @return A copy of this registry that is not frozen.
+     * @since 1.1
+     */
+    public OperatorRegistry copy() {
+        return new OperatorRegistry(this, false);
+    }
+
+    /**
+     * Creates a registry with the same operators, to which no more operators can be registered.
+     * A frozen registry can be shared between threads.
+     *
+     * @return A frozen copy of this registry, or this registry if it is already frozen.
+     * @since 1.1
+     */
+    public OperatorRegistry freeze() {
+        return frozen ? this : new OperatorRegistry(this, true);
+    }
+
+    /**
+     * Checks if the registry is frozen.
+     *
+     * @return <i>true</i> if no more operators can be registered.
+     * @since 1.1
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+
+    /**
+     * Registers a binary operator.
+     *
+     * @param operator The operator character.
+     * @param function The function, which is called with the current value and the operand.
+     * @return This registry.
+     * @throws NullValueException If <b>function</b> is null.
+     * @throws IllegalArgumentException If <b>operator</b> is built-in, already registered, or not an ASCII character.
+     * @throws UnsupportedOperationException If the registry is frozen.
+     * @since 1.1
+     */
+    public OperatorRegistry registerBinary(char operator, DoubleBinaryOperator function) throws NullValueException {
+        checkRegister(operator, function);
+        binary[operator] = function;
+        return this;
+    }
+
+    /**
+     * Registers a unary operator.
+     *
+     * @param operator The operator character.
+     * @param function The function, which is called with the current value.
+     * @return This registry.
+     * @throws NullValueException If <b>function</b> is null.
+     * @throws IllegalArgumentException If <b>operator</b> is built-in, already registered, or not an ASCII character.
+     * @throws UnsupportedOperationException If the registry is frozen.
+     * @since 1.1
+     */
+    public OperatorRegistry registerUnary(char operator, DoubleUnaryOperator function) throws NullValueException {
+        checkRegister(operator, function);
+        unary[operator] = function;
+        return this;
+    }
+
+    /**
+     * Removes a custom operator.
+     *
+     * @param operator The operator character.
+     * @return <i>true</i> if the operator was registered.
+     * @throws IllegalArgumentException If <b>operator</b> is built-in.
+     * @throws UnsupportedOperationException If the registry is frozen.
+     * @since 1.1
+     */
+    public boolean unregister(char operator) {
+        if(frozen) {
+            throw new UnsupportedOperationException("The registry is frozen!");
+        }
+        if(isBuiltIn(operator)) {
+            throw new IllegalArgumentException("The built-in operator " + operator + " can not be removed!");
+        }
+        if(operator >= SIZE || (binary[operator] == null && unary[operator] == null)) {
+            return false;
+        }
+
+        binary[operator] = null;
+        unary[operator] = null;
+        return true;
+    }
+
+    /**
+     * Returns the binary operator.
+     *
+     * @param operator The operator character.
+     * @return The function of the operator, or null if it is not a registered binary operator. Built-in operators are not registered.
+     * @since 1.1
+     */
+    public DoubleBinaryOperator getBinary(char operator) {
+        return operator < SIZE ? binary[operator] : null;
+    }
+
+    /**
+     * Returns the unary operator.
+     *
+     * @param operator The operator character.
+     * @return The function of the operator, or null if it is not a registered unary operator. Built-in operators are not registered.
+     * @since 1.1
+     */
+    public DoubleUnaryOperator getUnary(char operator) {
+        return operator < SIZE ? unary[operator] : null;
+    }
+
+
+    private void checkRegister(char operator, Object function) throws NullValueException {
+        if(frozen) {
+            throw new UnsupportedOperationException("The registry is frozen!");
+        }
+        if(function == null) {
+            throw new NullValueException();
+        }
+        if(operator >= SIZE) {
+            throw new IllegalArgumentException("Operators must be ASCII characters!");
+        }
+        if(isBuiltIn(operator)) {
+            throw new IllegalArgumentException("The built-in operator " + operator + " can not be replaced!");
+        }
+        if(binary[operator] != null || unary[operator] != null) {
+            throw new IllegalArgumentException("The operator " + operator + " is already registered!");
+        }
+    }
+}
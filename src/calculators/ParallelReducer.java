@@ -0,0 +1,296 @@
+package calculators;
+
+
+import exceptions.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.DoubleStream;
+
+
+/**
+ * Reduces large arrays of operands with an associative operator ('+' or '*') using a {@link ForkJoinPool}.
+ * The array is split in halves until a part is not longer than the sequential threshold,
+ * so the shape of the computation depends only on the length of the array and the threshold,
+ * and never on the number of threads. That is why the results are the same on every run.
+ *<br>
+ * Sums can optionally be compensated (Neumaier's variant of Kahan summation),
+ * which keeps the rounding error independent of the number of operands.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ParallelReducer {
+    /**
+     * Default length of the part of the array that is reduced sequentially.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final boolean compensated;
+
+
+    /**
+     * Initializes a new ParallelReducer which uses the common pool, the default threshold
+     * and plain summation.
+     * @since 1.1
+     */
+    public ParallelReducer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD, false);
+    }
+
+    /**
+     * Initializes a new ParallelReducer.
+     *
+     * @param pool  The pool that runs the reduction.
+     * @param threshold  Parts of the array that are not longer than this are reduced sequentially.
+     * @param compensated  If <i>true</i> sums are calculated with compensated summation.
+     * @throws IllegalArgumentException  If <b>pool</b> is null or <b>threshold</b> is less than 1.
+     * @since 1.1
+     */
+    public ParallelReducer(ForkJoinPool pool, int threshold, boolean compensated) {
+        if(pool == null) {
+            throw new IllegalArgumentException("The pool can not be null!");
+        }
+        if(threshold < 1) {
+            throw new IllegalArgumentException("The threshold must be at least 1!");
+        }
+
+        this.pool = pool;
+        this.threshold = threshold;
+        this.compensated = compensated;
+    }
+
+
+    /**
+     * Getter for the sequential threshold.
+     *
+     * @return The length of the part of the array that is reduced sequentially.
+     * @since 1.1
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Checks if sums are compensated.
+     *
+     * @return <i>true</i> if compensated summation is used.
+     * @since 1.1
+     */
+    public boolean isCompensated() {
+        return compensated;
+    }
+
+
+    /**
+     * Reduces all values with the operator.
+     *
+     * @param values  The values that are reduced.
+     * @param operator  The operator used for the reduction. Valid values are: '+' and '*'.
+     * @return The sum or the product of all values. For an empty array it is 0.0 or 1.0.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> is null.
+     * @since 1.1
+     */
+    public double reduce(double[] values, char operator) throws NotSupportedOperationException, NullValueException {
+        if(values == null) {
+            throw new NullValueException();
+        }
+
+        if(operator == '+') {
+            return sum(values);
+        }
+        else if(operator == '*') {
+            return product(values);
+        }
+        else {
+            throw new NotSupportedOperationException("You can only use + or * in a parallel reduction!");
+        }
+    }
+
+    /**
+     * Reduces all values of the stream with the operator. The stream is collected into an array first,
+     * so the result does not depend on how the stream would be split.
+     *
+     * @param values  The values that are reduced.
+     * @param operator  The operator used for the reduction. Valid values are: '+' and '*'.
+     * @return The sum or the product of all values.
+     * @throws NotSupportedOperationException  If <b>operator</b> is not a valid value.
+     * @throws NullValueException  If <b>values</b> is null.
+     * @since 1.1
+     */
+    public double reduce(DoubleStream values, char operator) throws NotSupportedOperationException, NullValueException {
+        if(values == null) {
+            throw new NullValueException();
+        }
+
+        return reduce(values.toArray(), operator);
+    }
+
+    /**
+     * Calculates the sum of all values.
+     *
+     * @param values  The values that are added.
+     * @return The sum of all values. If it is infinite, it is the same as without compensation.
+     * @since 1.1
+     */
+    public double sum(double[] values) {
+        double[] partial = pool.invoke(new SumTask(values, 0, values.length, threshold, compensated));
+        double sum = partial[0] + partial[1];
+
+        // Like DoubleSummaryStatistics: an infinite value or an overflow makes the compensation Inf - Inf,
+        // so the plain sum is returned instead.
+        return Double.isNaN(sum) && Double.isInfinite(partial[2]) ? partial[2] : sum;
+    }
+
+    /**
+     * Calculates the product of all values.
+     *
+     * @param values  The values that are multiplied.
+     * @return The product of all values.
+     * @since 1.1
+     */
+    public double product(double[] values) {
+        return pool.invoke(new ProductTask(values, 0, values.length, threshold));
+    }
+
+
+    /**
+     * Adds <b>value</b> to the sum in <b>partial[0]</b> and keeps the lost low-order bits in <b>partial[1]</b>.
+     * The plain sum in <b>partial[2]</b> is not changed.
+     */
+    private static void addCompensated(double[] partial, double value) {
+        double sum = partial[0];
+        double t = sum + value;
+
+        if(Math.abs(sum) >= Math.abs(value)) {
+            partial[1] += (sum - t) + value;
+        }
+        else {
+            partial[1] += (value - t) + sum;
+        }
+
+        partial[0] = t;
+    }
+
+
+    /**
+     * Sums a part of the array. The result is the sum, its compensation and the plain sum without compensation.
+     */
+    private static final class SumTask extends RecursiveTask<double[]> {
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final boolean compensated;
+
+        SumTask(double[] values, int from, int to, int threshold, boolean compensated) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.compensated = compensated;
+        }
+
+        @Override
+        protected double[] compute() {
+            if(to - from <= threshold) {
+                return compensated ? sumCompensated() : sumPlain();
+            }
+
+            int middle = (from + to) >>> 1;
+            SumTask left = new SumTask(values, from, middle, threshold, compensated);
+            SumTask right = new SumTask(values, middle, to, threshold, compensated);
+            left.fork();
+
+            double[] rightPartial = right.compute();
+            double[] leftPartial = left.join();
+
+            if(compensated) {
+                addCompensated(leftPartial, rightPartial[0]);
+                leftPartial[1] += rightPartial[1];
+                leftPartial[2] += rightPartial[2];
+            }
+            else {
+                leftPartial[0] += rightPartial[0];
+                leftPartial[2] = leftPartial[0];
+            }
+
+            return leftPartial;
+        }
+
+        private double[] sumPlain() {
+            double sum = 0.0;
+
+            for(int i = from; i < to; i++) {
+                sum += values[i];
+            }
+
+            return new double[] {sum, 0.0, sum};
+        }
+
+        private double[] sumCompensated() {
+            double sum = 0.0;
+            double compensation = 0.0;
+            double plain = 0.0;
+
+            for(int i = from; i < to; i++) {
+                double value = values[i];
+                double t = sum + value;
+                plain += value;
+
+                if(Math.abs(sum) >= Math.abs(value)) {
+                    compensation += (sum - t) + value;
+                }
+                else {
+                    compensation += (value - t) + sum;
+                }
+
+                sum = t;
+            }
+
+            return new double[] {sum, compensation, plain};
+        }
+    }
+
+
+    /**
+     * Multiplies a part of the array.
+     */
+    private static final class ProductTask extends RecursiveTask<Double> {
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ProductTask(double[] values, int from, int to, int threshold) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Double compute() {
+            if(to - from <= threshold) {
+                double product = 1.0;
+
+                for(int i = from; i < to; i++) {
+                    product *= values[i];
+                }
+
+                return product;
+            }
+
+            int middle = (from + to) >>> 1;
+            ProductTask left = new ProductTask(values, from, middle, threshold);
+            ProductTask right = new ProductTask(values, middle, to, threshold);
+            left.fork();
+
+            double rightProduct = right.compute();
+            return left.join() * rightProduct;
+        }
+    }
+}
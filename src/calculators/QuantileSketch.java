@@ -0,0 +1,295 @@
+package calculators;
+
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * Approximate quantiles of a stream of values, with a guaranteed relative error, in bounded memory.
+ *<br>
+ * The sketch works like DDSketch: a positive value x is counted in the bucket i for which
+ * <i>γ^(i-1) &lt; x ≤ γ^i</i>, where <i>γ = (1 + α) / (1 - α)</i>, and negative values are counted
+ * the same way by their absolute values. A quantile is read by walking the buckets in order, and every value
+ * of a bucket is represented by <i>2γ^i / (γ + 1)</i>, which is within the relative error α of all of them.
+ *<br>
+ * -Adding a value costs one logarithm and the memory depends only on the range of the values, not on their number.
+ * If the values need more than <b>maxBuckets</b> buckets of one sign, the buckets closest to zero are merged,
+ * so only the smallest quantiles lose their accuracy.<br>
+ * -Sketches with the same relative error can be merged, so every thread can collect its own part of a stream.<br>
+ * NaN and infinite values are ignored. This class is not thread safe.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class QuantileSketch implements DoubleConsumer {
+    /**
+     * Relative error of the sketch created by {@link #QuantileSketch()}.
+     */
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01;
+
+    /**
+     * Maximum number of buckets of one sign of the sketch created by {@link #QuantileSketch()}.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 2048;
+
+    private final double relativeError;
+    private final double gamma;
+    private final double logGamma;
+    private final Buckets positive;
+    private final Buckets negative;
+    private long zeroCount;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+
+    /**
+     * Initializes a new sketch with a relative error of 1% and at most 2048 buckets of each sign,
+     * which keep the accuracy for values from 10^-8 to 10^9.
+     * @since 1.1
+     */
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ERROR, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Initializes a new sketch.
+     *
+     * @param relativeError The relative error α of the quantiles, between 0 and 1.
+     * @param maxBuckets The maximum number of buckets of each sign.
+     * @throws IllegalArgumentException If <b>relativeError</b> is not between 0 and 1, or <b>maxBuckets</b> is not positive.
+     * @since 1.1
+     */
+    public QuantileSketch(double relativeError, int maxBuckets) {
+        if(!(relativeError > 0.0 && relativeError < 1.0)) {
+            throw new IllegalArgumentException("The relative error must be between 0 and 1!");
+        }
+        if(maxBuckets < 1) {
+            throw new IllegalArgumentException("The number of buckets must be positive!");
+        }
+
+        this.relativeError = relativeError;
+        this.gamma = (1.0 + relativeError) / (1.0 - relativeError);
+        this.logGamma = Math.log(gamma);
+        this.positive = new Buckets(maxBuckets);
+        this.negative = new Buckets(maxBuckets);
+    }
+
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value The value.
+     * @since 1.1
+     */
+    @Override
+    public void accept(double value) {
+        if(Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+
+        if(value > 0.0) {
+            positive.add(index(value), 1);
+        }
+        else if(value < 0.0) {
+            negative.add(index(-value), 1);
+        }
+        else {
+            zeroCount++;
+        }
+
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of another sketch to this sketch.
+     *
+     * @param other The other sketch, which is not changed.
+     * @throws IllegalArgumentException If the sketches do not have the same relative error.
+     * @since 1.1
+     */
+    public void merge(QuantileSketch other) {
+        if(other.relativeError != relativeError) {
+            throw new IllegalArgumentException("Only sketches with the same relative error can be merged!");
+        }
+
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes all values.
+     *
+     * @since 1.1
+     */
+    public void reset() {
+        positive.clear();
+        negative.clear();
+        zeroCount = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+
+    /**
+     * Getter for the relative error.
+     *
+     * @return The relative error α of the quantiles.
+     * @since 1.1
+     */
+    public double getRelativeError() {
+        return relativeError;
+    }
+
+    /**
+     * Getter for the count.
+     *
+     * @return The number of values, without NaN and infinite values.
+     * @since 1.1
+     */
+    public long getCount() {
+        return positive.total + negative.total + zeroCount;
+    }
+
+    /**
+     * Returns the value at a quantile, for example 0.5 for the median or 0.99 for the 99th percentile.
+     *
+     * @param quantile The quantile, from 0.0 to 1.0.
+     * @return A value whose relative difference from the exact quantile is at most the relative error,
+     *         or NaN if the sketch is empty. The quantiles 0.0 and 1.0 are the exact minimum and maximum.
+     * @throws IllegalArgumentException If <b>quantile</b> is not in range from 0.0 to 1.0.
+     * @since 1.1
+     */
+    public double getValueAtQuantile(double quantile) {
+        if(!(quantile >= 0.0 && quantile <= 1.0)) {
+            throw new IllegalArgumentException("The quantile must be in range from 0.0 to 1.0!");
+        }
+
+        long count = getCount();
+        if(count == 0) {
+            return Double.NaN;
+        }
+        if(quantile == 0.0) {
+            return min;
+        }
+        if(quantile == 1.0) {
+            return max;
+        }
+
+        long rank = (long) (quantile * (count - 1));
+        double value;
+
+        if(rank < negative.total) {
+            value = -value(negative.indexOfRank(negative.total - 1 - rank));
+        }
+        else if(rank < negative.total + zeroCount) {
+            value = 0.0;
+        }
+        else {
+            value = value(positive.indexOfRank(rank - negative.total - zeroCount));
+        }
+
+        return Math.max(min, Math.min(max, value));
+    }
+
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2.0 * Math.exp(index * logGamma) / (gamma + 1.0);
+    }
+
+
+    /**
+     * Counts of consecutive buckets, stored in an array which grows up to the maximum number of buckets.
+     */
+    private static final class Buckets {
+        private final int maxBuckets;
+        private long[] counts = new long[0];
+        private int offset;
+        private int minIndex;
+        private int maxIndex;
+        private long total;
+
+        private Buckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        void add(int index, long count) {
+            if(total == 0 || index < minIndex || index > maxIndex) {
+                index = extend(index);
+            }
+
+            counts[index - offset] += count;
+            total += count;
+        }
+
+        void addAll(Buckets other) {
+            for(int i = other.minIndex; other.total != 0 && i <= other.maxIndex; i++) {
+                long count = other.counts[i - other.offset];
+                if(count != 0) {
+                    add(i, count);
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(counts, 0);
+            total = 0;
+        }
+
+        /**
+         * Returns the index of the bucket which contains the value with the rank, counted from the lowest bucket.
+         */
+        int indexOfRank(long rank) {
+            long seen = 0;
+
+            for(int i = minIndex; i < maxIndex; i++) {
+                seen += counts[i - offset];
+                if(seen > rank) {
+                    return i;
+                }
+            }
+
+            return maxIndex;
+        }
+
+        /**
+         * Makes the range of buckets include the index, merging the lowest buckets if there would be too many.
+         * Returns the index of the bucket in which the value is counted.
+         */
+        private int extend(int index) {
+            int newMin = total == 0 ? index : Math.min(minIndex, index);
+            int newMax = total == 0 ? index : Math.max(maxIndex, index);
+            if((long) newMax - newMin >= maxBuckets) {
+                newMin = newMax - maxBuckets + 1;
+            }
+
+            int length = newMax - newMin + 1;
+            if(total == 0 || newMin < offset || newMax >= offset + counts.length || newMin > minIndex) {
+                int capacity = Math.min(maxBuckets, Math.max(length, 2 * counts.length));
+                capacity = Math.max(capacity, Math.min(maxBuckets, 16));
+                long[] grown = new long[capacity];
+                int newOffset = newMin - (capacity - length) / 2;
+                newOffset = Math.min(newOffset, newMin);
+
+                for(int i = minIndex; total != 0 && i <= maxIndex; i++) {
+                    grown[Math.max(i, newMin) - newOffset] += counts[i - offset];
+                }
+
+                counts = grown;
+                offset = newOffset;
+            }
+
+            minIndex = newMin;
+            maxIndex = newMax;
+            return Math.max(index, newMin);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package calculators;
+
+
+import exceptions.NumberNotInAreaException;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+
+/**
+ * Finds all Armstrong or perfect numbers in a range. The range is divided into chunks
+ * which are scanned in parallel and the results are joined in ascending order.
+ *<br>
+ * -Armstrong numbers: every chunk is scanned with an {@link ArmstrongChecker}, which raises the digits
+ * of the first number to the powers once and for every next number looks up only the digits that changed.<br>
+ * -Perfect numbers: the sums of divisors of a whole chunk are calculated at once with a sieve,
+ * by adding every divisor d ≤ √n and its pair n / d to all of its multiples in the chunk.<br>
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+final class RangeScanner {
+    /**
+     * Number of consecutive numbers checked by one task when looking for Armstrong numbers.
+     */
+    private static final long ARMSTRONG_CHUNK = 1 << 16;
+
+    /**
+     * The biggest number that can be perfect. For bigger numbers 2n does not fit in a long.
+     */
+    private static final long MAX_PERFECT = Long.MAX_VALUE / 2;
+
+    private RangeScanner() {
+    }
+
+
+    /**
+     * Finds all Armstrong numbers in range from <b>from</b> to <b>to</b>, both inclusive.
+     *
+     * @param from The first number of the range, at least 1.
+     * @param to The last number of the range.
+     * @return The Armstrong numbers in ascending order.
+     * @since 1.1
+     */
+    static long[] armstrong(long from, long to) {
+        if(from > to) {
+            return new long[0];
+        }
+
+        long chunks = (to - from) / ARMSTRONG_CHUNK + 1;
+
+        return LongStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    long first = from + chunk * ARMSTRONG_CHUNK;
+                    long last = chunk == chunks - 1 ? to : first + ARMSTRONG_CHUNK - 1;
+                    return armstrongChunk(first, last);
+                })
+                .flatMapToLong(Arrays::stream)
+                .toArray();
+    }
+
+    /**
+     * Finds all perfect numbers in range from <b>from</b> to <b>to</b>, both inclusive.
+     *
+     * @param from The first number of the range, at least 1.
+     * @param to The last number of the range.
+     * @return The perfect numbers in ascending order.
+     * @since 1.1
+     */
+    static long[] perfect(long from, long to) {
+        to = Math.min(to, MAX_PERFECT);
+
+        if(from > to) {
+            return new long[0];
+        }
+
+        // A chunk as long as the square root of the range end keeps the cost of visiting
+        // every divisor once per chunk in line with the cost of the sieve itself.
+        long chunkLength = Math.max(1 << 14, Math.min(1 << 20, sqrt(to)));
+        long chunks = (to - from) / chunkLength + 1;
+        long end = to;
+
+        return LongStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    long first = from + chunk * chunkLength;
+                    long last = chunk == chunks - 1 ? end : first + chunkLength - 1;
+                    return perfectChunk(first, last);
+                })
+                .flatMapToLong(Arrays::stream)
+                .toArray();
+    }
+
+
+    /**
+     * Scans the numbers from <b>from</b> to <b>to</b> with one {@link ArmstrongChecker}.
+     */
+    private static long[] armstrongChunk(long from, long to) {
+        long[] found = new long[4];
+        int count = 0;
+
+        ArmstrongChecker checker = newChecker(from);
+
+        for(long n = from; ; n = checker.next()) {
+            if(checker.isArmstrong()) {
+                if(count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = n;
+            }
+
+            if(n == to) {
+                break;
+            }
+        }
+
+        return Arrays.copyOf(found, count);
+    }
+
+    private static ArmstrongChecker newChecker(long from) {
+        try {
+            return new ArmstrongChecker(from);
+        }
+        catch(NumberNotInAreaException e) {
+            // The range is checked by CalculatorAdvanced.findArmstrong.
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Calculates the sums of proper divisors of all numbers from <b>from</b> to <b>to</b> with a sieve.
+     * Once a sum is bigger than its number it is not increased anymore, so it can not overflow.
+     */
+    private static long[] perfectChunk(long from, long to) {
+        long[] sums = new long[(int) (to - from + 1)];
+        long root = sqrt(to);
+
+        for(long d = 1; d <= root; d++) {
+            long k = Math.max(d, (from + d - 1) / d);
+
+            for(long m = k * d; m <= to; m += d, k++) {
+                int index = (int) (m - from);
+
+                if(sums[index] <= m) {
+                    long pair = (k == d || d == 1) ? 0 : k;
+                    sums[index] += (k == 1 ? 0 : d) + pair;
+                }
+            }
+        }
+
+        long[] found = new long[0];
+        for(int i = 0; i < sums.length; i++) {
+            long n = from + i;
+
+            if(sums[i] == n) {
+                found = Arrays.copyOf(found, found.length + 1);
+                found[found.length - 1] = n;
+            }
+        }
+
+        return found;
+    }
+
+    private static long sqrt(long n) {
+        long root = (long) Math.sqrt((double) n);
+
+        while(root * root > n) {
+            root--;
+        }
+        while((root + 1) * (root + 1) <= n) {
+            root++;
+        }
+
+        return root;
+    }
+}
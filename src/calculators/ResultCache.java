@@ -0,0 +1,376 @@
+package calculators;
+
+
+import exceptions.NullValueException;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Bounded, thread-safe cache of results of the advanced calculator, keyed by the operation
+ * and the whole number it was performed on. When the cache is full, the least recently used
+ * result is evicted.
+ *<br>
+ * Caches with at least {@link #SEGMENT_THRESHOLD} entries are split into {@link #SEGMENTS} independently
+ * locked segments, so threads working on different numbers do not wait for each other.
+ * The least recently used order is then kept separately in every segment.
+ *<br>
+ * The results can be written to a ByteBuffer and read back, to move a warm cache to another machine.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ResultCache {
+    /**
+     * Number of segments of a big cache.
+     */
+    public static final int SEGMENTS = 16;
+
+    /**
+     * The smallest size of a cache that is split into segments.
+     */
+    public static final int SEGMENT_THRESHOLD = 1024;
+
+    private final Segment[] segments;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Initializes a new ResultCache.
+     *
+     * @param maxSize The maximum number of results kept in the cache.
+     * @throws IllegalArgumentException If <b>maxSize</b> is less than 1.
+     * @since 1.1
+     */
+    public ResultCache(int maxSize) {
+        if(maxSize < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one result!");
+        }
+
+        int count = maxSize >= SEGMENT_THRESHOLD ? SEGMENTS : 1;
+        this.segments = new Segment[count];
+        this.maxSize = maxSize;
+
+        for(int i = 0; i < count; i++) {
+            segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+    }
+
+
+    /**
+     * Returns the cached result of a check, like {@link CalculatorAdvanced#hasCharacteristic(char)}.
+     *
+     * @param operation The operation, for example 'A' or 'P'.
+     * @param value The number the operation was performed on.
+     * @return The cached result, or null if it is not in the cache.
+     * @since 1.1
+     */
+    public Boolean getBoolean(char operation, long value) {
+        return get(operation, value, Boolean.class);
+    }
+
+    /**
+     * Stores the result of a check, evicting the least recently used result if the cache is full.
+     *
+     * @param operation The operation, for example 'A' or 'P'.
+     * @param value The number the operation was performed on.
+     * @param result The result.
+     * @since 1.1
+     */
+    public void putBoolean(char operation, long value, boolean result) {
+        put(operation, value, result);
+    }
+
+    /**
+     * Returns the cached whole number result of an operation, like {@link CalculatorAdvanced#calculateFactorialExact()}.
+     *
+     * @param operation The operation, for example '!'.
+     * @param value The number the operation was performed on.
+     * @return The cached result, or null if it is not in the cache.
+     * @since 1.1
+     */
+    public BigInteger getBigInteger(char operation, long value) {
+        return get(operation, value, BigInteger.class);
+    }
+
+    /**
+     * Stores the whole number result of an operation, evicting the least recently used result if the cache is full.
+     *
+     * @param operation The operation, for example '!'.
+     * @param value The number the operation was performed on.
+     * @param result The result.
+     * @throws NullValueException If <b>result</b> is null.
+     * @since 1.1
+     */
+    public void putBigInteger(char operation, long value, BigInteger result) throws NullValueException {
+        if(result == null) {
+            throw new NullValueException();
+        }
+
+        put(operation, value, result);
+    }
+
+    /**
+     * Removes all results. The counters are not reset.
+     * @since 1.1
+     */
+    public void clear() {
+        for(Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+
+    /**
+     * Writes all results, from the least to the most recently used in every segment. The counters are not written.
+     *<br>
+     * The format is: the format version, the number of segments, and for every segment the number of results
+     * followed by the results. Every result is the operation, the number, and a byte which is 0 for false,
+     * 1 for true, or 2 for a BigInteger, which is then written as the length and the bytes of its two's-complement form.
+     *
+     * @param buffer The buffer to which the results are written, at its position.
+     * @throws java.nio.BufferOverflowException If the buffer does not have enough bytes remaining.
+     * @since 1.1
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(Calculator.STATE_VERSION).putInt(segments.length);
+
+        for(Segment segment : segments) {
+            segment.writeTo(buffer);
+        }
+    }
+
+    /**
+     * Replaces all results with the ones written by {@link #writeTo(ByteBuffer)}, possibly by a cache of another size
+     * on another machine. If there are more results than the maximum size, the least recently used ones are evicted.
+     * All results are read before any is replaced, so if they can not be read, the cache is not changed.
+     *
+     * @param buffer The buffer from which the results are read, at its position.
+     * @throws java.nio.BufferUnderflowException If the buffer does not have enough bytes remaining.
+     * @throws IllegalArgumentException If the results were written in an unsupported format version or are corrupted.
+     * @since 1.1
+     */
+    public void readFrom(ByteBuffer buffer) {
+        Calculator.checkStateVersion(buffer.get());
+        List<Key> keys = new ArrayList<>();
+        List<Object> results = new ArrayList<>();
+
+        for(int segment = buffer.getInt(); segment > 0; segment--) {
+            for(int count = buffer.getInt(); count > 0; count--) {
+                char operation = buffer.getChar();
+                long value = buffer.getLong();
+                byte kind = buffer.get();
+
+                if(kind == 0 || kind == 1) {
+                    results.add(kind == 1);
+                }
+                else if(kind == 2) {
+                    int length = buffer.getInt();
+                    if(length < 1 || length > buffer.remaining()) {
+                        throw new IllegalArgumentException("Corrupted result of the operation " + operation + "!");
+                    }
+
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    results.add(new BigInteger(bytes));
+                }
+                else {
+                    throw new IllegalArgumentException("Unknown kind of result " + kind + "!");
+                }
+                keys.add(new Key(operation, value));
+            }
+        }
+
+        clear();
+        for(int i = 0; i < keys.size(); i++) {
+            segmentFor(keys.get(i).value).put(keys.get(i), results.get(i));
+        }
+    }
+
+
+    /**
+     * Getter for the number of results in the cache.
+     *
+     * @return The number of results in the cache.
+     * @since 1.1
+     */
+    public int size() {
+        int size = 0;
+
+        for(Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Getter for the maximum number of results in the cache.
+     *
+     * @return The maximum number of results.
+     * @since 1.1
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Getter for the number of lookups that found a result.
+     *
+     * @return The number of hits.
+     * @since 1.1
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Getter for the number of lookups that did not find a result.
+     *
+     * @return The number of misses.
+     * @since 1.1
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Getter for the number of results that were evicted because the cache was full.
+     *
+     * @return The number of evictions.
+     * @since 1.1
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    /**
+     * Returns the cached result if it is of the type, counting the lookup as a hit, or null otherwise.
+     */
+    private <T> T get(char operation, long value, Class<T> type) {
+        Object result = segmentFor(value).get(new Key(operation, value));
+
+        if(type.isInstance(result)) {
+            hits.increment();
+            return type.cast(result);
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    private void put(char operation, long value, Object result) {
+        segmentFor(value).put(new Key(operation, value), result);
+    }
+
+    private Segment segmentFor(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 32) & (segments.length - 1)];
+    }
+
+
+    /**
+     * Part of the cache with its own lock and least recently used order.
+     */
+    private final class Segment {
+        private final LinkedHashMap<Key, Object> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                    if(size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+
+                    return false;
+                }
+            };
+        }
+
+        synchronized Object get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Key key, Object value) {
+            entries.put(key, value);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void writeTo(ByteBuffer buffer) {
+            int count = 0;
+            for(Object result : entries.values()) {
+                count += result instanceof Boolean || result instanceof BigInteger ? 1 : 0;
+            }
+
+            buffer.putInt(count);
+
+            for(Map.Entry<Key, Object> entry : entries.entrySet()) {
+                Object result = entry.getValue();
+
+                if(result instanceof Boolean) {
+                    entry.getKey().writeTo(buffer);
+                    buffer.put((byte) ((Boolean) result ? 1 : 0));
+                }
+                else if(result instanceof BigInteger) {
+                    byte[] bytes = ((BigInteger) result).toByteArray();
+
+                    entry.getKey().writeTo(buffer);
+                    buffer.put((byte) 2).putInt(bytes.length).put(bytes);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Key of a cached result.
+     */
+    private static final class Key {
+        private final char operation;
+        private final long value;
+
+        Key(char operation, long value) {
+            this.operation = operation;
+            this.value = value;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.putChar(operation).putLong(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) other;
+            return operation == key.operation && value == key.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * operation + Long.hashCode(value);
+        }
+    }
+}
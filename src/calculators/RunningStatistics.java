@@ -0,0 +1,186 @@
+package calculators;
+
+
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * Count, sum, mean, variance, minimum and maximum of a stream of values, updated in constant time and memory.
+ *<br>
+ * The variance is calculated with Welford's algorithm, which does not lose precision like the sum of squares does.
+ * Statistics of different parts of a stream can be merged, so every thread can collect its own part, for example:<br>
+ * <i>DoubleStream.of(values).parallel().collect(RunningStatistics::new, RunningStatistics::accept, RunningStatistics::merge)</i>
+ *<br>
+ * The statistics of a calculator's operands are collected with {@link Calculator#setOperandObserver(DoubleConsumer)}.
+ * This class is not thread safe.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class RunningStatistics implements DoubleConsumer {
+    private long count;
+    private double sum;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+
+    /**
+     * Initializes new empty statistics.
+     * @since 1.1
+     */
+    public RunningStatistics() {
+    }
+
+
+    /**
+     * Adds a value to the statistics.
+     *
+     * @param value The value.
+     * @since 1.1
+     */
+    @Override
+    public void accept(double value) {
+        count++;
+        sum += value;
+
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of other statistics to these statistics, as if they were accepted by these statistics.
+     *
+     * @param other The other statistics, which are not changed.
+     * @since 1.1
+     */
+    public void merge(RunningStatistics other) {
+        if(other.count == 0) {
+            return;
+        }
+        if(count == 0) {
+            count = other.count;
+            sum = other.sum;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes all values.
+     *
+     * @since 1.1
+     */
+    public void reset() {
+        count = 0;
+        sum = 0.0;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+
+    /**
+     * Getter for the count.
+     *
+     * @return The number of values.
+     * @since 1.1
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter for the sum.
+     *
+     * @return The sum of the values, or 0.0 if there are none.
+     * @since 1.1
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Getter for the mean.
+     *
+     * @return The arithmetic mean of the values, or 0.0 if there are none.
+     * @since 1.1
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Getter for the population variance.
+     *
+     * @return The mean of the squared differences from the mean, or 0.0 if there are no values.
+     * @since 1.1
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * Getter for the sample variance, which is an unbiased estimate of the variance of the population the values came from.
+     *
+     * @return The sum of the squared differences from the mean divided by count - 1, or 0.0 if there are less than 2 values.
+     * @since 1.1
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    /**
+     * Getter for the population standard deviation.
+     *
+     * @return The square root of {@link #getVariance()}.
+     * @since 1.1
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Getter for the minimum.
+     *
+     * @return The smallest value, or positive infinity if there are no values.
+     * @since 1.1
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Getter for the maximum.
+     *
+     * @return The biggest value, or negative infinity if there are no values.
+     * @since 1.1
+     */
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + mean + ", variance=" + getVariance() + ", min=" + min + ", max=" + max;
+    }
+}
@@ -0,0 +1,208 @@
+package calculators;
+
+
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * Count, mean, variance, minimum and maximum of the last <b>size</b> values of a stream.
+ *<br>
+ * Every value is added in constant time and the memory does not depend on the length of the stream:<br>
+ * -The mean and the variance are updated by replacing the oldest value with the new one in Welford's algorithm.
+ * Every <b>size</b> values they are calculated again from the values in the window, so the rounding errors
+ * of the updates, for example after a very big value left the window, do not stay in them.<br>
+ * -The minimum and the maximum are the first elements of two monotonic queues, from which every value
+ * is removed at most once.<br>
+ * This class is not thread safe.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class SlidingWindowStatistics implements DoubleConsumer {
+    private final double[] values;
+    private final long[] minQueue;
+    private final long[] maxQueue;
+    private long minHead;
+    private long minTail;
+    private long maxHead;
+    private long maxTail;
+    private long sequence;
+    private double mean;
+    private double m2;
+
+
+    /**
+     * Initializes new empty statistics.
+     *
+     * @param size The number of last values that are included.
+     * @throws IllegalArgumentException If <b>size</b> is not positive.
+     * @since 1.1
+     */
+    public SlidingWindowStatistics(int size) {
+        if(size < 1) {
+            throw new IllegalArgumentException("The window size must be positive!");
+        }
+
+        this.values = new double[size];
+        this.minQueue = new long[size];
+        this.maxQueue = new long[size];
+    }
+
+
+    /**
+     * Adds a value and removes the oldest value if the window is full.
+     *
+     * @param value The value.
+     * @since 1.1
+     */
+    @Override
+    public void accept(double value) {
+        int size = values.length;
+        int index = (int) (sequence % size);
+
+        if(sequence < size) {
+            double delta = value - mean;
+            mean += delta / (sequence + 1);
+            m2 += delta * (value - mean);
+        }
+        else {
+            double oldest = values[index];
+            double oldMean = mean;
+            mean += (value - oldest) / size;
+            m2 = Math.max(0.0, m2 + (value - oldest) * (value - mean + oldest - oldMean));
+        }
+        values[index] = value;
+
+        if(index == size - 1) {
+            recalculate();
+        }
+
+        // The value that left the window can only be at the head of the queues.
+        long expired = sequence - size;
+        if(minHead < minTail && entry(minQueue, minHead) == expired) minHead++;
+        if(maxHead < maxTail && entry(maxQueue, maxHead) == expired) maxHead++;
+
+        while(minHead < minTail && valueAt(minQueue, minTail - 1) >= value) minTail--;
+        while(maxHead < maxTail && valueAt(maxQueue, maxTail - 1) <= value) maxTail--;
+        minQueue[(int) (minTail++ % size)] = sequence;
+        maxQueue[(int) (maxTail++ % size)] = sequence;
+
+        sequence++;
+    }
+
+    /**
+     * Removes all values.
+     *
+     * @since 1.1
+     */
+    public void reset() {
+        sequence = 0;
+        minHead = minTail = maxHead = maxTail = 0;
+        mean = 0.0;
+        m2 = 0.0;
+    }
+
+
+    /**
+     * Getter for the window size.
+     *
+     * @return The number of last values that are included.
+     * @since 1.1
+     */
+    public int getSize() {
+        return values.length;
+    }
+
+    /**
+     * Getter for the count.
+     *
+     * @return The number of values in the window, which is less than the window size only until it is filled.
+     * @since 1.1
+     */
+    public int getCount() {
+        return (int) Math.min(sequence, values.length);
+    }
+
+    /**
+     * Getter for the mean.
+     *
+     * @return The arithmetic mean of the values in the window, or 0.0 if there are none.
+     * @since 1.1
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Getter for the population variance.
+     *
+     * @return The variance of the values in the window, or 0.0 if there are none.
+     * @since 1.1
+     */
+    public double getVariance() {
+        int count = getCount();
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * Getter for the population standard deviation.
+     *
+     * @return The square root of {@link #getVariance()}.
+     * @since 1.1
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Getter for the minimum.
+     *
+     * @return The smallest value in the window, or positive infinity if there are none.
+     * @since 1.1
+     */
+    public double getMin() {
+        return minHead == minTail ? Double.POSITIVE_INFINITY : valueAt(minQueue, minHead);
+    }
+
+    /**
+     * Getter for the maximum.
+     *
+     * @return The biggest value in the window, or negative infinity if there are none.
+     * @since 1.1
+     */
+    public double getMax() {
+        return maxHead == maxTail ? Double.NEGATIVE_INFINITY : valueAt(maxQueue, maxHead);
+    }
+
+
+    /**
+     * Calculates the mean and the sum of squared differences of the full window with two passes.
+     */
+    private void recalculate() {
+        double sum = 0.0;
+        for(double value : values) {
+            sum += value;
+        }
+        mean = sum / values.length;
+
+        double squares = 0.0;
+        for(double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        m2 = squares;
+    }
+
+    /**
+     * Returns the sequence number stored at a position of a queue.
+     */
+    private long entry(long[] queue, long position) {
+        return queue[(int) (position % queue.length)];
+    }
+
+    /**
+     * Returns the value whose sequence number is stored at a position of a queue.
+     */
+    private double valueAt(long[] queue, long position) {
+        return values[(int) (entry(queue, position) % values.length)];
+    }
+}
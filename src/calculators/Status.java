@@ -0,0 +1,49 @@
+package calculators;
+
+
+/**
+ * Status codes returned by the methods of the calculators that report errors without throwing exceptions,
+ * for example {@link Calculator#tryCalculate(double, char)}. Every error has a negative code
+ * which matches one of the exceptions of the method that throws.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public final class Status {
+    /**
+     * The operation was performed.
+     */
+    public static final int OK = 0;
+
+    /**
+     * The operation was not performed because it would divide by zero.
+     * Matches {@link exceptions.DivisionByZeroException}.
+     */
+    public static final int DIVISION_BY_ZERO = -1;
+
+    /**
+     * The operation is not supported. Matches {@link exceptions.NotSupportedOperationException}.
+     */
+    public static final int NOT_SUPPORTED_OPERATION = -2;
+
+    /**
+     * The value is not in-between the allowed range. Matches {@link exceptions.NumberNotInAreaException}.
+     */
+    public static final int NUMBER_NOT_IN_AREA = -3;
+
+
+    private Status() {
+    }
+
+
+    /**
+     * Checks if the status code is an error.
+     *
+     * @param status The status code.
+     * @return <i>true</i> if the code is an error, <i>false</i> otherwise.
+     * @since 1.1
+     */
+    public static boolean isError(int status) {
+        return status < 0;
+    }
+}
@@ -0,0 +1,101 @@
+package calculators;
+
+
+import exceptions.NullValueException;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * Splits a stream of values into consecutive windows of <b>size</b> values, which do not overlap,
+ * and passes the {@link RunningStatistics} of every full window to a listener.
+ *<br>
+ * For example, with a size of 1000 the listener receives the statistics of values 1 to 1000,
+ * then of values 1001 to 2000, and so on. The listener is called by the thread that adds the last
+ * value of a window, and it receives a new statistics object every time, which it can keep.
+ * This class is not thread safe.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class TumblingWindowStatistics implements DoubleConsumer {
+    private final int size;
+    private final Consumer<RunningStatistics> listener;
+    private RunningStatistics current = new RunningStatistics();
+
+
+    /**
+     * Initializes new statistics without values.
+     *
+     * @param size The number of values in every window.
+     * @param listener The listener which receives the statistics of every full window.
+     * @throws NullValueException If <b>listener</b> is null.
+     * @throws IllegalArgumentException If <b>size</b> is not positive.
+     * @since 1.1
+     */
+    public TumblingWindowStatistics(int size, Consumer<RunningStatistics> listener) throws NullValueException {
+        if(listener == null) {
+            throw new NullValueException();
+        }
+        if(size < 1) {
+            throw new IllegalArgumentException("The window size must be positive!");
+        }
+
+        this.size = size;
+        this.listener = listener;
+    }
+
+
+    /**
+     * Adds a value to the current window, and passes the window to the listener if it is full.
+     *
+     * @param value The value.
+     * @since 1.1
+     */
+    @Override
+    public void accept(double value) {
+        current.accept(value);
+
+        if(current.getCount() == size) {
+            flush();
+        }
+    }
+
+    /**
+     * Passes the current window to the listener even if it is not full, and starts a new window.
+     * Nothing is passed if the current window is empty.
+     *
+     * @since 1.1
+     */
+    public void flush() {
+        if(current.getCount() == 0) {
+            return;
+        }
+
+        RunningStatistics full = current;
+        current = new RunningStatistics();
+        listener.accept(full);
+    }
+
+
+    /**
+     * Getter for the window size.
+     *
+     * @return The number of values in every window.
+     * @since 1.1
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter for the current window.
+     *
+     * @return The statistics of the values that are not passed to the listener yet. They should not be modified.
+     * @since 1.1
+     */
+    public RunningStatistics getCurrent() {
+        return current;
+    }
+}
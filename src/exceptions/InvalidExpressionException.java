@@ -0,0 +1,29 @@
+package exceptions;
+
+/**
+ * Thrown when an application attempts to compile an expression that is not written correctly.
+ * 
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class InvalidExpressionException extends Exception {
+
+    /**
+     * Constructs a new exception with null as its detail message.
+     * 
+     * @since 1.1
+     */
+    public InvalidExpressionException() {
+        super();
+    }
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     * 
+     * @param str The detail message.
+     * @since 1.1
+     */
+    public InvalidExpressionException(String str){
+        super(str);
+    }
+}
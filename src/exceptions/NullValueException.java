@@ -26,4 +26,16 @@ public class NullValueException extends Exception {
     public NullValueException(String str){
         super(str);
     }
+
+    /**
+     * Constructs a new exception with the specified detail message, which optionally does not capture
+     * the stack trace. Such exceptions are cheap to create and can be created once and thrown many times.
+     * 
+     * @param str The detail message.
+     * @param writableStackTrace Whether the stack trace should be captured.
+     * @since 1.1
+     */
+    public NullValueException(String str, boolean writableStackTrace){
+        super(str, null, false, writableStackTrace);
+    }
 }
@@ -27,4 +27,16 @@ public class NumberNotInAreaException extends Exception{
     public NumberNotInAreaException(String str){
         super(str);
     }
+
+    /**
+     * Constructs a new exception with the specified detail message, which optionally does not capture
+     * the stack trace. Such exceptions are cheap to create and can be created once and thrown many times.
+     * 
+     * @param str The detail message.
+     * @param writableStackTrace Whether the stack trace should be captured.
+     * @since 1.1
+     */
+    public NumberNotInAreaException(String str, boolean writableStackTrace){
+        super(str, null, false, writableStackTrace);
+    }
 }
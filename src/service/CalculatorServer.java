@@ -0,0 +1,567 @@
+package service;
+
+
+import calculators.CalculatorAdvanced;
+import calculators.CalculatorMetrics;
+import calculators.Status;
+import exceptions.NullValueException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Server which exposes {@link CalculatorAdvanced} over TCP with a line based text protocol.
+ *<br>
+ * Every connection is a session with its own calculator, whose current value starts at 0.0.
+ * The client sends one command per line and the server answers every command with one line,
+ * in the same order. The commands are:<br>
+ * -<i>SET value</i> sets the current value,<br>
+ * -<i>CALC operator value</i> calls {@link CalculatorAdvanced#calculate(double, char)},<br>
+ * -<i>ADV action</i> calls {@link CalculatorAdvanced#calculateAdvanced(char)},<br>
+ * -<i>HAS characteristic</i> calls {@link CalculatorAdvanced#hasCharacteristic(char)},<br>
+ * -<i>GET</i> returns the current value,<br>
+ * -<i>QUIT</i> closes the connection.<br>
+ * The answer is <i>OK</i> followed by the current value, or by <i>true</i> or <i>false</i> for <i>HAS</i>,
+ * or <i>ERR</i> followed by the name of the exception the calculator would throw, or <i>InvalidCommand</i>.
+ * For example, <i>CALC / 4</i> answers <i>OK 2.5</i> if the current value was 10.0.
+ * Lines longer than {@link #MAX_LINE_LENGTH} characters are answered with <i>ERR LineTooLong</i>
+ * without being kept in memory.
+ *<br><br>
+ * Clients can send many commands without waiting for the answers. The answers are buffered
+ * and sent when there are no more received commands, so a batch of commands is answered with few packets.
+ *<br>
+ * On Java versions that have virtual threads, every connection is handled by its own virtual thread with blocking
+ * streams. Otherwise, like on Java 17, the connections are handled with non-blocking channels by one {@link Selector}
+ * per processor core, and every selector thread executes the commands of its connections. In both cases many
+ * thousands of connections need only a few platform threads. A connection whose answers are not read by the client
+ * is not read further until they are sent.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorServer implements Closeable {
+    /**
+     * The longest command line, without the line terminator, that is executed.
+     */
+    public static final int MAX_LINE_LENGTH = 256;
+
+    /**
+     * Number of connections which wait to be accepted, big enough for bursts of many clients connecting at once.
+     */
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService executor;
+    private final EventLoop[] loops;
+    private int nextLoop;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile CalculatorMetrics metrics;
+
+
+    /**
+     * Creates a server that listens on the loopback address and starts accepting connections.
+     *
+     * @param port The port, or 0 for any free port.
+     * @throws IOException If the port can not be bound.
+     * @since 1.1
+     */
+    public CalculatorServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Creates a server and starts accepting connections.
+     *
+     * @param address The address to listen on.
+     * @throws IOException If the address can not be bound.
+     * @since 1.1
+     */
+    public CalculatorServer(InetSocketAddress address) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+
+        try {
+            serverChannel.bind(address, BACKLOG);
+
+            ExecutorService virtualThreads = newVirtualThreadExecutor();
+            if(virtualThreads != null) {
+                this.loops = null;
+                this.executor = virtualThreads;
+            }
+            else {
+                this.loops = new EventLoop[Runtime.getRuntime().availableProcessors()];
+                for(int i = 0; i < loops.length; i++) {
+                    loops[i] = new EventLoop();
+                }
+
+                this.executor = Executors.newFixedThreadPool(loops.length + 1, task -> {
+                    Thread thread = new Thread(task, "calculator-server");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                for(EventLoop loop : loops) {
+                    executor.execute(loop);
+                }
+            }
+        }
+        catch(IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+
+        this.executor.execute(this::accept);
+    }
+
+
+    /**
+     * Getter for the port.
+     *
+     * @return The port on which the server listens.
+     * @since 1.1
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Getter for the number of open connections.
+     *
+     * @return The number of open connections.
+     * @since 1.1
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Sets the metrics to which the calculators of new sessions record their operations.
+     *
+     * @param metrics The metrics, or null to stop measuring new sessions.
+     * @since 1.1
+     */
+    public void setMetrics(CalculatorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Stops accepting connections and closes all open connections.
+     *
+     * @throws IOException If the server socket can not be closed.
+     * @since 1.1
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            serverChannel.close();
+        }
+        finally {
+            for(Socket connection : connections) {
+                closeConnection(connection);
+            }
+
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Starts a server on the port given as the first argument, or on 7070. The server listens on the loopback
+     * address, or on the host given as the second argument, for example <i>0.0.0.0</i> for all interfaces.
+     * The protocol has no authentication, so other interfaces should only be used in trusted networks.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the port can not be bound or the host is not known.
+     * @throws InterruptedException If the main thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        InetAddress host = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        CalculatorServer server = new CalculatorServer(new InetSocketAddress(host, port));
+
+        System.out.println("Calculator server is listening on " + host.getHostAddress() + " port " + server.getPort());
+
+        // The threads of the server are daemon threads, so the main thread keeps the JVM running.
+        Thread.currentThread().join();
+    }
+
+
+    private void accept() {
+        while(serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            }
+            catch(ClosedChannelException e) {
+                // The server was closed.
+                return;
+            }
+            catch(IOException e) {
+                // The connection failed before it was accepted, the next one can still succeed.
+                continue;
+            }
+
+            // The socket is added before the check, so close() either sees it or is seen by the check.
+            Socket socket = channel.socket();
+            connections.add(socket);
+            if(!serverChannel.isOpen()) {
+                closeConnection(socket);
+                return;
+            }
+
+            try {
+                socket.setTcpNoDelay(true);
+
+                if(loops == null) {
+                    executor.execute(() -> handle(socket));
+                }
+                else {
+                    loops[nextLoop++ % loops.length].add(channel);
+                }
+            }
+            catch(IOException e) {
+                closeConnection(socket);
+            }
+            catch(RejectedExecutionException e) {
+                // The executor was shut down by close().
+                closeConnection(socket);
+                return;
+            }
+        }
+    }
+
+    private void closeConnection(Socket socket) {
+        connections.remove(socket);
+
+        try {
+            socket.close();
+        }
+        catch(IOException ignored) {
+            // The connection is being closed anyway.
+        }
+    }
+
+    /**
+     * Handles a connection with blocking streams, on its own virtual thread.
+     */
+    private void handle(Socket socket) {
+        CalculatorAdvanced calculator = newCalculator();
+
+        try(socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            StringBuilder buffer = new StringBuilder();
+
+            for(String line = readLine(in, buffer); line != null; line = readLine(in, buffer)) {
+                String answer = respond(calculator, line);
+                if(answer == null) {
+                    break;
+                }
+
+                out.write(answer);
+                out.write('\n');
+
+                if(!in.ready()) {
+                    out.flush();
+                }
+            }
+        }
+        catch(IOException e) {
+            // The client closed the connection.
+        }
+        finally {
+            connections.remove(socket);
+        }
+    }
+
+    private CalculatorAdvanced newCalculator() {
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        calculator.setMetrics(metrics);
+        return calculator;
+    }
+
+    /**
+     * Reads one line without its terminator, or returns null at the end of the stream. At most
+     * {@link #MAX_LINE_LENGTH} + 1 characters are kept, so a longer line is recognized by its length.
+     */
+    private static String readLine(Reader in, StringBuilder line) throws IOException {
+        int c = in.read();
+        if(c == -1) {
+            return null;
+        }
+
+        line.setLength(0);
+        for(; c != -1 && c != '\n'; c = in.read()) {
+            if(line.length() <= MAX_LINE_LENGTH) {
+                line.append((char) c);
+            }
+        }
+
+        return toLine(line);
+    }
+
+    /**
+     * Returns the characters of a line without the carriage return of the line terminator.
+     */
+    private static String toLine(StringBuilder line) {
+        int length = line.length();
+        if(length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+
+        return line.toString();
+    }
+
+    /**
+     * Returns the answer to a line, or null if the line is <i>QUIT</i>.
+     */
+    private static String respond(CalculatorAdvanced calculator, String line) {
+        if(line.length() > MAX_LINE_LENGTH) {
+            return "ERR LineTooLong";
+        }
+
+        return line.trim().equalsIgnoreCase("QUIT") ? null : execute(calculator, line);
+    }
+
+    /**
+     * Executes one command and returns the answer.
+     */
+    private static String execute(CalculatorAdvanced calculator, String line) {
+        String[] words = line.trim().split("\\s+");
+        String command = words[0].toUpperCase(Locale.ROOT);
+
+        try {
+            if(command.equals("SET") && words.length == 2) {
+                calculator.setCurrentValue(Double.parseDouble(words[1]));
+                return ok(calculator);
+            }
+            else if(command.equals("CALC") && words.length == 3 && words[1].length() == 1) {
+                return answer(calculator, calculator.tryCalculate(Double.parseDouble(words[2]), words[1].charAt(0)));
+            }
+            else if(command.equals("ADV") && words.length == 2 && words[1].length() == 1) {
+                return answer(calculator, calculator.tryCalculateAdvanced(words[1].charAt(0)));
+            }
+            else if(command.equals("HAS") && words.length == 2 && words[1].length() == 1) {
+                int status = calculator.tryHasCharacteristic(words[1].charAt(0));
+                return Status.isError(status) ? error(status) : status == 1 ? "OK true" : "OK false";
+            }
+            else if(command.equals("GET") && words.length == 1) {
+                return ok(calculator);
+            }
+        }
+        catch(NumberFormatException | NullValueException e) {
+            // Invalid number, answered below.
+        }
+
+        return "ERR InvalidCommand";
+    }
+
+    private static String answer(CalculatorAdvanced calculator, int status) {
+        return Status.isError(status) ? error(status) : ok(calculator);
+    }
+
+    private static String ok(CalculatorAdvanced calculator) {
+        return "OK " + calculator.getCurrentValueAsDouble();
+    }
+
+    private static String error(int status) {
+        switch(status) {
+            case Status.DIVISION_BY_ZERO: return "ERR DivisionByZeroException";
+            case Status.NOT_SUPPORTED_OPERATION: return "ERR NotSupportedOperationException";
+            case Status.NUMBER_NOT_IN_AREA: return "ERR NumberNotInAreaException";
+            default: return "ERR " + status;
+        }
+    }
+
+    /**
+     * Creates an executor with a new virtual thread for every task, or returns null if the Java version
+     * does not support them.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch(ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Thread which handles many connections with non-blocking channels and one selector.
+     */
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> added = new ConcurrentLinkedQueue<>();
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        /**
+         * Hands a new connection to the thread of this loop.
+         */
+        void add(SocketChannel channel) {
+            added.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try(selector) {
+                while(serverChannel.isOpen()) {
+                    selector.select();
+
+                    for(SocketChannel channel = added.poll(); channel != null; channel = added.poll()) {
+                        register(channel);
+                    }
+
+                    for(Iterator<SelectionKey> keys = selector.selectedKeys().iterator(); keys.hasNext(); ) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ((Session) key.attachment()).handle(key);
+                    }
+                }
+            }
+            catch(IOException | ClosedSelectorException e) {
+                // The selector failed or the server was closed, the connections are closed by close().
+            }
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, new Session(channel));
+            }
+            catch(IOException e) {
+                closeConnection(channel.socket());
+            }
+        }
+    }
+
+
+    /**
+     * State of a connection handled by an {@link EventLoop}.
+     */
+    private final class Session {
+        private final SocketChannel channel;
+        private final CalculatorAdvanced calculator = newCalculator();
+        private final ByteBuffer input = ByteBuffer.allocate(4096);
+        private final StringBuilder line = new StringBuilder();
+        private ByteBuffer output = ByteBuffer.allocate(4096);
+        private boolean quit;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if(key.isReadable()) {
+                    read();
+                }
+                write(key);
+            }
+            catch(IOException | CancelledKeyException e) {
+                // The client closed the connection, or close() closed it.
+                close(key);
+            }
+        }
+
+        /**
+         * Reads the received bytes and appends the answers of the complete lines to the output.
+         */
+        private void read() throws IOException {
+            if(channel.read(input) < 0) {
+                quit = true;
+                return;
+            }
+
+            input.flip();
+            while(input.hasRemaining() && !quit) {
+                char c = (char) (input.get() & 0xFF);
+
+                if(c != '\n') {
+                    if(line.length() <= MAX_LINE_LENGTH) {
+                        line.append(c);
+                    }
+                    continue;
+                }
+
+                String answer = respond(calculator, toLine(line));
+                line.setLength(0);
+
+                if(answer == null) {
+                    quit = true;
+                }
+                else {
+                    append(answer);
+                }
+            }
+            input.clear();
+        }
+
+        private void append(String answer) {
+            int length = answer.length() + 1;
+
+            if(output.remaining() < length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * output.capacity(), output.position() + length));
+                output = grown.put(output.flip());
+            }
+
+            output.put(answer.getBytes(StandardCharsets.US_ASCII)).put((byte) '\n');
+        }
+
+        /**
+         * Sends as much of the output as possible. While some is left, the connection is not read.
+         */
+        private void write(SelectionKey key) throws IOException {
+            output.flip();
+            channel.write(output);
+            boolean pending = output.hasRemaining();
+            output.compact();
+
+            if(pending) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+            else if(quit) {
+                close(key);
+            }
+            else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private void close(SelectionKey key) {
+            key.cancel();
+            closeConnection(channel.socket());
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Provides a network service that exposes the calculators of <b>calculators</b> to other processes.
+ */
+
+package service;
@@ -0,0 +1,93 @@
+package tests;
+
+
+import calculators.ArmstrongChecker;
+import calculators.CalculatorAdvanced;
+import exceptions.NumberNotInAreaException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for ArmstrongChecker.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ArmstrongCheckerTest {
+
+    /**
+     * Testing single numbers, including 19-digit numbers whose sums of digit powers do not fit in a long.
+     *
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("isArmstrongParams")
+    public void testIsArmstrong(long number, boolean expected) throws Exception {
+        assertThat(ArmstrongChecker.isArmstrong(number), is(expected));
+        assertThat(new ArmstrongChecker(number).isArmstrong(), is(expected));
+
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        calculator.setCurrentValue((double) number);
+        if((long) calculator.getCurrentValueAsDouble() == number) {
+            assertThat(calculator.hasCharacteristic('A'), is(expected));
+        }
+    }
+
+    private static Stream<Arguments> isArmstrongParams() {
+        return Stream.of(
+                Arguments.of(1L, true),
+                Arguments.of(9L, true),
+                Arguments.of(10L, false),
+                Arguments.of(153L, true),
+                Arguments.of(154L, false),
+                Arguments.of(9926315L, true),
+                Arguments.of(4679307774L, true),
+                Arguments.of(1517841543307505039L, true),
+                Arguments.of(3289582984443187032L, true),
+                Arguments.of(4498128791164624869L, true),
+                Arguments.of(4929273885928088826L, true),
+                Arguments.of(4929273885928088827L, false),
+                Arguments.of(8999999999999999999L, false),
+                Arguments.of(Long.MAX_VALUE, false)
+        );
+    }
+
+
+    /**
+     * Testing that moving the checker gives the same results as checking every number on its own,
+     * also when the number of digits grows.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testNext() throws Exception {
+        ArmstrongChecker checker = new ArmstrongChecker(1);
+
+        for(long n = 1; n <= 200_000; n++) {
+            assertThat(checker.getValue(), is(n));
+            assertThat(checker.isArmstrong(), is(ArmstrongChecker.isArmstrong(n)));
+            checker.next();
+        }
+
+        checker = new ArmstrongChecker(999_999_999_999_999_990L);
+        for(int i = 0; i < 20; i++) {
+            assertThat(checker.isArmstrong(), is(ArmstrongChecker.isArmstrong(checker.getValue())));
+            checker.next();
+        }
+
+        ArmstrongChecker last = new ArmstrongChecker(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, last::next);
+        assertThrows(NumberNotInAreaException.class, () -> new ArmstrongChecker(0));
+        assertThat(ArmstrongChecker.isArmstrong(0), is(false));
+        assertThat(ArmstrongChecker.isArmstrong(-153), is(false));
+    }
+}
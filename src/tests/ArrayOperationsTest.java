@@ -0,0 +1,109 @@
+package tests;
+
+
+import calculators.ArrayOperations;
+import calculators.Calculator;
+import exceptions.NotSupportedOperationException;
+import exceptions.NullValueException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for ArrayOperations.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ArrayOperationsTest {
+
+    /**
+     * Testing that every element is calculated like {@link Calculator#tryCalculate(double, char)} calculates it.
+     *
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @ValueSource(chars = {'+', '-', '*', '/'})
+    public void testCalculate(char operator) throws Exception {
+        Random random = new Random(operator);
+        double[] a = new double[1000];
+        double[] b = new double[a.length];
+
+        for(int i = 0; i < a.length; i++) {
+            a[i] = random.nextDouble() * 100 - 50;
+            b[i] = i % 7 == 0 ? 0.0 : random.nextDouble() * 100 - 50;
+        }
+
+        double[] out = new double[a.length];
+        long[] mask = new long[ArrayOperations.maskLength(a.length)];
+        int zeros = ArrayOperations.calculate(a, b, out, operator, mask);
+
+        Calculator calculator = new Calculator();
+        for(int i = 0; i < a.length; i++) {
+            calculator.setCurrentValue(a[i]);
+            calculator.tryCalculate(b[i], operator);
+            assertThat(out[i], is(calculator.getCurrentValueAsDouble()));
+        }
+
+        if(operator == '/') {
+            assertThat(zeros, is(143));
+            assertThat(BitSet.valueOf(mask).nextSetBit(1), is(7));
+            assertThat(BitSet.valueOf(mask).cardinality(), is(143));
+        }
+        else {
+            assertThat(zeros, is(0));
+        }
+    }
+
+
+    /**
+     * Testing the operations with a single second operand and an output which is one of the inputs.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testScalar() throws Exception {
+        double[] a = {1.0, 2.0, 3.0};
+
+        ArrayOperations.add(a, 1.0, a);
+        ArrayOperations.mul(a, 2.0, a);
+        ArrayOperations.sub(a, 1.0, a);
+        assertThat(a, is(new double[] {3.0, 5.0, 7.0}));
+
+        long[] mask = new long[1];
+        assertThat(ArrayOperations.div(a, 2.0, a, mask), is(0));
+        assertThat(a, is(new double[] {1.5, 2.5, 3.5}));
+        assertThat(ArrayOperations.div(a, 0.0, a, mask), is(3));
+        assertThat(a, is(new double[] {1.5, 2.5, 3.5}));
+        assertThat(mask[0], is(7L));
+
+        double[] b = {0.0, 0.5, 0.0};
+        assertThat(ArrayOperations.div(a, b, b, null), is(2));
+        assertThat(b, is(new double[] {1.5, 5.0, 3.5}));
+    }
+
+
+    /**
+     * Testing the exceptions.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testExceptions() {
+        double[] a = new double[65];
+
+        assertThrows(NotSupportedOperationException.class, () -> ArrayOperations.calculate(a, a, a, '%', null));
+        assertThrows(NullValueException.class, () -> ArrayOperations.add(a, null, a));
+        assertThrows(NullValueException.class, () -> ArrayOperations.mul(null, 1.0, a));
+        assertThrows(IllegalArgumentException.class, () -> ArrayOperations.sub(a, new double[1], a));
+        assertThrows(IllegalArgumentException.class, () -> ArrayOperations.div(a, a, a, new long[1]));
+    }
+}
@@ -0,0 +1,159 @@
+package tests;
+
+
+import calculators.BatchEvaluator;
+import calculators.Calculator;
+import exceptions.DivisionByZeroException;
+import exceptions.NotSupportedOperationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for BatchEvaluator.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class BatchEvaluatorTest {
+
+    @TempDir
+    Path directory;
+
+
+    /**
+     * Testing that every record is calculated and its result written, also when the records cross
+     * the boundaries of the mapped windows.
+     *
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {12, 17, BatchEvaluator.DEFAULT_WINDOW_SIZE})
+    public void testEvaluate(int windowSize) throws Exception {
+        Path input = write("1.5,+\r\n  -0.25 , *\n\n4,/\n1e3,-\n2.5E-2,+");
+        Calculator calculator = new Calculator();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long records = new BatchEvaluator(calculator, windowSize).evaluate(input, Channels.newChannel(output));
+
+        assertThat(records, is(5L));
+        assertThat(results(output), is(new double[] {1.5, -0.375, -0.09375, -1000.09375, -1000.06875}));
+        assertThat(calculator.getCurrentValueAsDouble(), is(-1000.06875));
+    }
+
+
+    /**
+     * Testing that the numbers are parsed exactly like {@link Double#parseDouble(String)} parses them.
+     *
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"0.1", "-0", "123456789012345678901234567890", "0.000000000000000000000000000001",
+            "9007199254740993", "1.7976931348623157e308", "4.9e-324", "+.5", "7.", "1e22", "1e23", "NaN", "-Infinity"})
+    public void testParse(String number) throws Exception {
+        Path input = write(number + ",+");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new BatchEvaluator(new Calculator()).evaluate(input, Channels.newChannel(output));
+
+        assertThat(results(output), is(new double[] {0.0 + Double.parseDouble(number)}));
+    }
+
+
+    /**
+     * Testing that errors report the line and that the results before the error are written.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testErrors() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchEvaluator evaluator = new BatchEvaluator(new Calculator());
+
+        Exception e = assertThrows(DivisionByZeroException.class,
+                () -> evaluator.evaluate(write("2,+\n0,/\n"), Channels.newChannel(output)));
+        assertThat(e.getMessage(), containsString("Line 2"));
+        assertThat(results(output), is(new double[] {2.0}));
+
+        e = assertThrows(NotSupportedOperationException.class,
+                () -> evaluator.evaluate(write("1,+\n1,%"), Channels.newChannel(output)));
+        assertThat(e.getMessage(), containsString("Line 2"));
+
+        e = assertThrows(NumberFormatException.class,
+                () -> evaluator.evaluate(write("1,+\n\n1x,+"), Channels.newChannel(output)));
+        assertThat(e.getMessage(), containsString("Line 3"));
+
+        assertThrows(NumberFormatException.class, () -> evaluator.evaluate(write("1 +"), Channels.newChannel(output)));
+        assertThrows(NumberFormatException.class, () -> evaluator.evaluate(write("1,+-"), Channels.newChannel(output)));
+        assertThrows(IOException.class,
+                () -> new BatchEvaluator(new Calculator(), 4).evaluate(write("123456,+"), Channels.newChannel(output)));
+        assertThrows(IllegalArgumentException.class, () -> new BatchEvaluator(new Calculator(), 0));
+    }
+
+
+    /**
+     * Testing that an error of the output does not replace the error of a record, but is suppressed by it.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testOutputErrors() throws Exception {
+        WritableByteChannel broken = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                throw new IOException("broken output");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        BatchEvaluator evaluator = new BatchEvaluator(new Calculator());
+
+        Exception e = assertThrows(DivisionByZeroException.class, () -> evaluator.evaluate(write("2,+\n0,/\n"), broken));
+        assertThat(e.getSuppressed().length, is(1));
+        assertThat(e.getSuppressed()[0].getMessage(), is("broken output"));
+
+        e = assertThrows(IOException.class, () -> evaluator.evaluate(write("2,+\n"), broken));
+        assertThat(e.getMessage(), is("broken output"));
+        assertThat(e.getSuppressed().length, is(0));
+    }
+
+
+    private Path write(String content) throws Exception {
+        Path file = Files.createTempFile(directory, "records", ".csv");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static double[] results(ByteArrayOutputStream output) {
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray());
+        double[] results = new double[buffer.remaining() / Double.BYTES];
+
+        for(int i = 0; i < results.length; i++) {
+            results[i] = buffer.getDouble();
+        }
+
+        return results;
+    }
+}
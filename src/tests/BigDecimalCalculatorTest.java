@@ -0,0 +1,216 @@
+package tests;
+
+
+import calculators.BigDecimalCalculator;
+import calculators.BigDecimalCalculatorAdvanced;
+import calculators.CalculatorAdvanced;
+import exceptions.DivisionByZeroException;
+import exceptions.NotSupportedOperationException;
+import exceptions.NullValueException;
+import exceptions.NumberNotInAreaException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for BigDecimalCalculator and BigDecimalCalculatorAdvanced.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class BigDecimalCalculatorTest {
+
+    private static Stream<Arguments> calculateParams() {
+        return Stream.of(
+                Arguments.of("0.1", "0.2", '+', "0.3"),
+                Arguments.of("1.50", "2", '+', "3.50"),
+                Arguments.of("1", "0.001", '-', "0.999"),
+                Arguments.of("1.5", "1.5", '*', "2.25"),
+                Arguments.of("1", "3", '/', "0.3333333333333333333333333333333333"),
+                Arguments.of("9223372036854775807", "1", '+', "9223372036854775808"),
+                Arguments.of("4294967296", "4294967296", '*', "18446744073709551616")
+        );
+    }
+
+    /**
+     * Testing the results of the four basic operations, also when they overflow a long.
+     *
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("calculateParams")
+    public void testCalculate(String current, String value, char operator, String expected) {
+        BigDecimalCalculator calculator = new BigDecimalCalculator();
+
+        try {
+            calculator.setCurrentValue(new BigDecimal(current));
+            calculator.calculate(new BigDecimal(value), operator);
+            assertThat(calculator.getCurrentValue(), is(new BigDecimal(expected)));
+        }
+        catch (Exception e) {
+            assertThat(e.getMessage(), false);
+        }
+    }
+
+
+    /**
+     * Testing that adding 0.1 many times does not drift, and that the value is demoted back
+     * to a long after it was promoted.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testPromotion() throws Exception {
+        BigDecimalCalculator calculator = new BigDecimalCalculator();
+
+        for(int i = 0; i < 1000; i++) {
+            calculator.calculate(1, 1, '+');
+        }
+        assertThat(calculator.getCurrentValue(), is(new BigDecimal("100.0")));
+        assertThat(calculator.isPromoted(), is(false));
+
+        calculator.calculate(Long.MAX_VALUE, 0, '*');
+        assertThat(calculator.isPromoted(), is(true));
+        assertThat(calculator.getCurrentValue(), is(new BigDecimal("922337203685477580700.0")));
+
+        calculator.calculate(Long.MAX_VALUE, 0, '/');
+        assertThat(calculator.isPromoted(), is(false));
+        assertThat(calculator.getCurrentValue().compareTo(new BigDecimal(100)), is(0));
+    }
+
+
+    /**
+     * Testing that the results are rounded according to the math context.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testMathContext() throws Exception {
+        BigDecimalCalculator calculator = new BigDecimalCalculator(new MathContext(4));
+
+        calculator.calculate(12345, 0, '+');
+        assertThat(calculator.getCurrentValue(), is(new BigDecimal("1.235E+4")));
+
+        calculator.setMathContext(MathContext.UNLIMITED);
+        calculator.calculate(1, 0, '+');
+        assertThat(calculator.getCurrentValue(), is(new BigDecimal("12351")));
+
+        assertThrows(ArithmeticException.class, () -> calculator.calculate(7, 0, '/'));
+        assertThrows(IllegalArgumentException.class, () -> calculator.setMathContext(null));
+    }
+
+
+    /**
+     * Testing the exceptions of the basic operations.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testExceptions() {
+        BigDecimalCalculator calculator = new BigDecimalCalculator();
+
+        assertThrows(DivisionByZeroException.class, () -> calculator.calculate(BigDecimal.ZERO, '/'));
+        assertThrows(DivisionByZeroException.class, () -> calculator.calculate(0, 5, '/'));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.calculate(BigDecimal.ONE, '%'));
+        assertThrows(NullValueException.class, () -> calculator.calculate(null, '+'));
+        assertThrows(NullValueException.class, () -> calculator.setCurrentValue(null));
+    }
+
+
+    private static Stream<Arguments> advancedParams() {
+        return Stream.of(
+                Arguments.of("5.7", '!', "120"),
+                Arguments.of("25", '!', "15511210043330985984000000"),
+                Arguments.of("2.9", '3', "8"),
+                Arguments.of("-3", '3', "-27")
+        );
+    }
+
+    /**
+     * Testing the advanced operations.
+     *
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("advancedParams")
+    public void testCalculateAdvanced(String current, char action, String expected) {
+        BigDecimalCalculatorAdvanced calculator = new BigDecimalCalculatorAdvanced();
+
+        try {
+            calculator.setCurrentValue(new BigDecimal(current));
+            calculator.calculateAdvanced(action);
+            assertThat(calculator.getCurrentValue().compareTo(new BigDecimal(expected)), is(0));
+        }
+        catch (Exception e) {
+            assertThat(e.getMessage(), false);
+        }
+    }
+
+
+    /**
+     * Testing the characteristics and the exceptions of the advanced operations.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testHasCharacteristic() throws Exception {
+        BigDecimalCalculatorAdvanced calculator = new BigDecimalCalculatorAdvanced();
+
+        calculator.setCurrentValue(new BigDecimal("153.9"));
+        assertThat(calculator.hasCharacteristic('A'), is(true));
+        calculator.setCurrentValue(new BigDecimal("8128"));
+        assertThat(calculator.hasCharacteristic('P'), is(true));
+        assertThat(calculator.hasCharacteristic('A'), is(false));
+
+        assertThrows(NotSupportedOperationException.class, () -> calculator.hasCharacteristic('X'));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.calculateAdvanced('x'));
+
+        calculator.setCurrentValue(new BigDecimal("0.5"));
+        assertThrows(NumberNotInAreaException.class, () -> calculator.hasCharacteristic('A'));
+        calculator.setCurrentValue(new BigDecimal("-1"));
+        assertThrows(NumberNotInAreaException.class, () -> calculator.calculateAdvanced('!'));
+    }
+
+
+    /**
+     * Testing that the factorial is rounded like the exact factorial, and that it is limited.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testFactorialLimits() throws Exception {
+        BigDecimalCalculatorAdvanced calculator = new BigDecimalCalculatorAdvanced();
+
+        for(int n : new int[] {30, 1000, 20_000}) {
+            calculator.setCurrentValue(BigDecimal.valueOf(n));
+            calculator.calculateAdvanced('!');
+            BigDecimal exact = new BigDecimal(CalculatorAdvanced.factorialExact(n));
+            assertThat(calculator.getCurrentValue(), is(exact.round(BigDecimalCalculator.DEFAULT_MATH_CONTEXT)));
+        }
+
+        calculator.setCurrentValue(BigDecimal.valueOf(BigDecimalCalculatorAdvanced.MAX_FACTORIAL));
+        calculator.calculateAdvanced('!');
+        assertThat(calculator.getCurrentValue().precision(), is(34));
+        assertThat(calculator.getCurrentValue().toString(), is("8.263931688331240062376646103172666E+5565708"));
+
+        calculator.setCurrentValue(BigDecimal.valueOf(BigDecimalCalculatorAdvanced.MAX_FACTORIAL + 1L));
+        assertThrows(NumberNotInAreaException.class, () -> calculator.calculateAdvanced('!'));
+
+        BigDecimalCalculatorAdvanced unlimited = new BigDecimalCalculatorAdvanced(MathContext.UNLIMITED);
+        unlimited.setCurrentValue(new BigDecimal("25.5"));
+        unlimited.calculateAdvanced('!');
+        assertThat(unlimited.getCurrentValue(), is(new BigDecimal("15511210043330985984000000")));
+        unlimited.setCurrentValue(BigDecimal.valueOf(CalculatorAdvanced.MAX_FACTORIAL_EXACT + 1L));
+        assertThrows(NumberNotInAreaException.class, () -> unlimited.calculateAdvanced('!'));
+    }
+}
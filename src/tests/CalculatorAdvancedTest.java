@@ -2,6 +2,7 @@ package tests;
 
 
 import calculators.CalculatorAdvanced;
+import calculators.Status;
 import exceptions.*;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -11,6 +12,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -79,6 +85,9 @@ public class CalculatorAdvancedTest {
                 Arguments.of('!', 1.0, 1.0),
                 Arguments.of('!', 9.5, 362880.0),
                 Arguments.of('!', 10.0, 3628800.0),
+                Arguments.of('!', 11.0, 39916800.0),
+                Arguments.of('!', 20.5, 2432902008176640000.0),
+                Arguments.of('!', 170.0, 7.257415615307999E306),
 
                 Arguments.of('0', -0.9, 1.0),
                 Arguments.of('0', 16.0, 1.0),
@@ -119,7 +128,7 @@ public class CalculatorAdvancedTest {
         return Stream.of(
                 Arguments.of('?', 0.0, NotSupportedOperationException.class),
                 Arguments.of('!', -0.5, NumberNotInAreaException.class),
-                Arguments.of('!', 11.0, NumberNotInAreaException.class)
+                Arguments.of('!', 170.5, NumberNotInAreaException.class)
         );
     }
 
@@ -159,6 +168,8 @@ public class CalculatorAdvancedTest {
                 Arguments.of('P', 28.0,   true),
                 Arguments.of('P', 496.0,  true),
                 Arguments.of('P', 8128.0, true),
+                Arguments.of('P', 137438691328.0, true),
+                Arguments.of('P', 999999999989.0, false),
 
                 Arguments.of('P', 1.0,   false),
                 Arguments.of('P', 5.0,   false),
@@ -201,4 +212,127 @@ public class CalculatorAdvancedTest {
     }
 
 
+    /**
+     * Testing the exact factorial against the table of factorials.
+     *
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testFactorialExact() throws Exception{
+        for(int n = 0; n <= CalculatorAdvanced.MAX_FACTORIAL; n++) {
+            assertThat(CalculatorAdvanced.factorialExact(n).doubleValue(), is(CalculatorAdvanced.factorial(n)));
+        }
+
+        BigInteger expected = BigInteger.ONE;
+        for(int i = 2; i <= 1000; i++) {
+            expected = expected.multiply(BigInteger.valueOf(i));
+        }
+        assertThat(CalculatorAdvanced.factorialExact(1000), is(expected));
+
+        calculatorAdvanced.setCurrentValue(25.9);
+        assertThat(calculatorAdvanced.calculateFactorialExact(), is(new BigInteger("15511210043330985984000000")));
+
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.factorialExact(-1));
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.factorialExact(CalculatorAdvanced.MAX_FACTORIAL_EXACT + 1));
+        assertThat(CalculatorAdvanced.factorialExact(CalculatorAdvanced.MAX_FACTORIAL_EXACT).bitLength(), is(1_516_705));
+
+        calculatorAdvanced.setCurrentValue(CalculatorAdvanced.MAX_FACTORIAL_EXACT + 1.0);
+        assertThrows(NumberNotInAreaException.class, () -> calculatorAdvanced.calculateFactorialExact());
+        calculatorAdvanced.setCurrentValue((double) Integer.MAX_VALUE);
+        assertThrows(NumberNotInAreaException.class, () -> calculatorAdvanced.calculateFactorialExact());
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.factorial(171));
+    }
+
+
+    /**
+     * Testing the power methods with exponents that can not be used as power actions.
+     *
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testPow() throws Exception{
+        assertThat(CalculatorAdvanced.pow(2.0, 10), is(1024.0));
+        assertThat(CalculatorAdvanced.pow(2.0, -2), is(0.25));
+        assertThat(CalculatorAdvanced.pow(-2.0, 63), is(-9.223372036854775808E18));
+        assertThat(CalculatorAdvanced.pow(2.0, Long.MIN_VALUE), is(0.0));
+        assertThat(CalculatorAdvanced.pow(-1.0, Long.MIN_VALUE), is(1.0));
+        assertThat(CalculatorAdvanced.pow(1.5, 0), is(1.0));
+
+        calculatorAdvanced.setCurrentValue(1.5);
+        calculatorAdvanced.calculatePower(3);
+        assertThat(calculatorAdvanced.getCurrentValue(), is(3.375));
+
+        assertThat(CalculatorAdvanced.powExact(0.1, 2), is(new BigDecimal(0.1).multiply(new BigDecimal(0.1))));
+        assertThat(CalculatorAdvanced.modPow(2, 10, 1000), is(24L));
+        assertThat(CalculatorAdvanced.modPow(-2, 3, 5), is(2L));
+        assertThat(CalculatorAdvanced.modPow(5, 0, 1), is(0L));
+
+        long modulus = Long.MAX_VALUE - 24;
+        BigInteger expected = BigInteger.valueOf(Long.MAX_VALUE - 100).modPow(BigInteger.valueOf(1L << 40), BigInteger.valueOf(modulus));
+        assertThat(CalculatorAdvanced.modPow(Long.MAX_VALUE - 100, 1L << 40, modulus), is(expected.longValue()));
+
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.powExact(2.0, -1));
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.modPow(2, 2, 0));
+    }
+
+
+    /**
+     * Testing the range scans against checking every number with <b>CalculatorAdvanced.hasCharacteristic()</b>.
+     *
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testFindInRange() throws Exception{
+        List<Long> armstrong = new ArrayList<>();
+        List<Long> perfect = new ArrayList<>();
+        for(long n = 1; n <= 200_000; n++) {
+            calculatorAdvanced.setCurrentValue((double) n);
+            if(calculatorAdvanced.hasCharacteristic('A')) armstrong.add(n);
+            if(calculatorAdvanced.hasCharacteristic('P')) perfect.add(n);
+        }
+
+        assertThat(Arrays.stream(CalculatorAdvanced.findArmstrong(1, 200_000)).boxed().toArray(), is(armstrong.toArray()));
+        assertThat(Arrays.stream(CalculatorAdvanced.findPerfect(1, 200_000)).boxed().toArray(), is(perfect.toArray()));
+
+        assertThat(CalculatorAdvanced.findArmstrong(4_000_000_000L, 5_000_000_000L), is(new long[] {4679307774L}));
+        assertThat(CalculatorAdvanced.findArmstrong(4338281769391370L, 4338281769391371L), is(new long[] {4338281769391370L, 4338281769391371L}));
+        assertThat(CalculatorAdvanced.findArmstrong(1517841543307505039L, 1517841543307505040L), is(new long[] {1517841543307505039L}));
+        assertThat(CalculatorAdvanced.findPerfect(33_000_000L, 34_000_000L), is(new long[] {33550336L}));
+        assertThat(CalculatorAdvanced.findPerfect(137438691000L, 137438692000L), is(new long[] {137438691328L}));
+        assertThat(CalculatorAdvanced.findPerfect(10, 5), is(new long[0]));
+
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.findArmstrong(0, 10));
+        assertThrows(NumberNotInAreaException.class, () -> CalculatorAdvanced.findPerfect(-1, 10));
+    }
+
+
+    /**
+     * Testing the methods that report errors with status codes and the stackless exceptions.
+     *
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testStatusCodes() throws Exception{
+        calculatorAdvanced.setCurrentValue(171.0);
+        assertThat(calculatorAdvanced.tryCalculateAdvanced('!'), is(Status.NUMBER_NOT_IN_AREA));
+        assertThat(calculatorAdvanced.tryHasCharacteristic('A'), is(0));
+        assertThat(calculatorAdvanced.tryHasCharacteristic('x'), is(Status.NOT_SUPPORTED_OPERATION));
+        assertThat(calculatorAdvanced.tryCalculateAdvanced('x'), is(Status.NOT_SUPPORTED_OPERATION));
+        assertThat(calculatorAdvanced.getCurrentValue(), is(171.0));
+
+        calculatorAdvanced.setCurrentValue(28.0);
+        assertThat(calculatorAdvanced.tryHasCharacteristic('P'), is(1));
+        assertThat(calculatorAdvanced.tryCalculateAdvanced('2'), is(Status.OK));
+        assertThat(calculatorAdvanced.getCurrentValue(), is(784.0));
+
+        calculatorAdvanced.setCurrentValue(0.5);
+        assertThat(calculatorAdvanced.tryHasCharacteristic('P'), is(Status.NUMBER_NOT_IN_AREA));
+
+        calculatorAdvanced.setStacklessExceptions(true);
+        Throwable exception = assertThrows(NumberNotInAreaException.class, () -> calculatorAdvanced.hasCharacteristic('A'));
+        assertThat(exception.getStackTrace().length, is(0));
+        assertThat(assertThrows(NotSupportedOperationException.class, () -> calculatorAdvanced.calculateAdvanced('x')).getStackTrace().length, is(0));
+    }
+
+
 }
@@ -0,0 +1,140 @@
+package tests;
+
+
+import calculators.CalculatorAdvanced;
+import calculators.CalculatorMetrics;
+import calculators.LatencyHistogram;
+import calculators.OperationStats;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for CalculatorMetrics and LatencyHistogram.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorMetricsTest {
+
+    /**
+     * Testing that the operations, errors and slowest inputs of a calculator are recorded.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testRecording() throws Exception {
+        CalculatorMetrics metrics = new CalculatorMetrics();
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        calculator.setMetrics(metrics);
+
+        calculator.calculate(5.0, '+');
+        calculator.calculate(2.0, '+');
+        calculator.tryCalculate(0.0, '/');
+        calculator.tryCalculate(1.0, '%');
+        calculator.calculateAdvanced('!');
+        calculator.setCurrentValue(-1.0);
+        calculator.tryCalculateAdvanced('!');
+        calculator.setCurrentValue(8128.0);
+        assertThat(calculator.hasCharacteristic('P'), is(true));
+
+        OperationStats add = metrics.getOperation('+');
+        assertThat(add.getCount(), is(2L));
+        assertThat(add.getSlowestInput() == 5.0 || add.getSlowestInput() == 2.0, is(true));
+        assertThat(metrics.getOperation('/').getDivisionByZeroErrors(), is(1L));
+        assertThat(metrics.getOperation('%').getNotSupportedErrors(), is(1L));
+        assertThat(metrics.getOperation('!').getCount(), is(2L));
+        assertThat(metrics.getOperation('!').getNotInAreaErrors(), is(1L));
+        assertThat(metrics.getOperation('P').getSlowestInput(), is(8128.0));
+        assertThat(metrics.getOperation('-'), is(nullValue()));
+
+        assertThat(metrics.getOperationCount(), is(7L));
+        assertThat(metrics.getErrorCount(), is(3L));
+        assertThat(metrics.getOperations().length, is(5));
+
+        calculator.setMetrics(null);
+        calculator.calculate(1.0, '+');
+        assertThat(metrics.getOperation('+').getCount(), is(2L));
+
+        metrics.reset();
+        assertThat(metrics.getOperationCount(), is(0L));
+    }
+
+
+    /**
+     * Testing that the percentiles of the histogram have a relative error of at most 1/16.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for(long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getCount(), is(100_000L));
+        assertThat(histogram.getMax(), is(100_000L));
+        assertThat(histogram.getMean(), is(50_000.5));
+
+        for(double percentile : new double[] {1.0, 50.0, 90.0, 99.0, 99.9}) {
+            double exact = percentile * 1000;
+            double error = Math.abs(histogram.getValueAtPercentile(percentile) - exact) / exact;
+            assertThat(error, lessThanOrEqualTo(1.0 / LatencyHistogram.SUB_BUCKETS));
+        }
+        assertThat(histogram.getValueAtPercentile(100.0), is(100_000L));
+
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertThat(histogram.getValueAtPercentile(100.0), is(Long.MAX_VALUE));
+        assertThat(histogram.getValueAtPercentile(0.0), is(0L));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101.0));
+
+        histogram.reset();
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMean(), is(0.0));
+    }
+
+
+    /**
+     * Testing that the metrics can be read through JMX.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testMXBean() throws Exception {
+        CalculatorMetrics metrics = new CalculatorMetrics();
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        calculator.setMetrics(metrics);
+        calculator.calculate(1.0, '*');
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("calculators:type=Metrics,name=test");
+        server.registerMBean(metrics, name);
+
+        try {
+            assertThat(server.getAttribute(name, "OperationCount"), is(1L));
+
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            assertThat(operations.length, is(1));
+            assertThat(operations[0].get("operator"), is('*'));
+
+            server.invoke(name, "reset", null, null);
+            assertThat(metrics.getOperationCount(), is(0L));
+        }
+        finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
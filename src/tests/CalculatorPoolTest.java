@@ -0,0 +1,130 @@
+package tests;
+
+
+import calculators.CalculatorAdvanced;
+import calculators.CalculatorPool;
+import calculators.OperatorRegistry;
+import calculators.Status;
+import exceptions.DivisionByZeroException;
+import exceptions.NotSupportedOperationException;
+import exceptions.NumberNotInAreaException;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for CalculatorPool.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorPoolTest {
+
+    /**
+     * Testing that the operations on a session give the same results as on a CalculatorAdvanced.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testOperations() throws Exception {
+        CalculatorPool pool = new CalculatorPool(10);
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        int session = pool.open();
+        assertThat(pool.getCurrentValue(session), is(0.0));
+
+        pool.calculate(session, 5.0, '+');
+        calculator.calculate(5.0, '+');
+        pool.calculateAdvanced(session, '!');
+        calculator.calculateAdvanced('!');
+        pool.calculate(session, 7.0, '/');
+        calculator.calculate(7.0, '/');
+        pool.calculateAdvanced(session, '2');
+        calculator.calculateAdvanced('2');
+        assertThat(pool.getCurrentValue(session), is(calculator.getCurrentValueAsDouble()));
+
+        pool.setCurrentValue(session, 8128.0);
+        assertThat(pool.hasCharacteristic(session, 'P'), is(true));
+        assertThat(pool.hasCharacteristic(session, 'A'), is(false));
+        pool.setCurrentValue(session, 9926315.0);
+        assertThat(pool.hasCharacteristic(session, 'A'), is(true));
+
+        assertThrows(DivisionByZeroException.class, () -> pool.calculate(session, 0.0, '/'));
+        assertThrows(NotSupportedOperationException.class, () -> pool.calculate(session, 1.0, '%'));
+        assertThrows(NotSupportedOperationException.class, () -> pool.calculateAdvanced(session, 'x'));
+        assertThrows(NotSupportedOperationException.class, () -> pool.hasCharacteristic(session, 'X'));
+        pool.setCurrentValue(session, -1.0);
+        assertThrows(NumberNotInAreaException.class, () -> pool.calculateAdvanced(session, '!'));
+        assertThat(pool.tryHasCharacteristic(session, 'A'), is(Status.NUMBER_NOT_IN_AREA));
+        assertThat(pool.getCurrentValue(session), is(-1.0));
+
+        pool.setOperators(new OperatorRegistry().registerBinary('%', (a, b) -> a % b).registerUnary('r', Math::sqrt));
+        pool.setCurrentValue(session, 17.0);
+        pool.calculate(session, 8.0, '%');
+        pool.calculateAdvanced(session, 'r');
+        assertThat(pool.getCurrentValue(session), is(1.0));
+    }
+
+
+    /**
+     * Testing opening, closing and reusing sessions, and that sessions do not share their values.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testSessions() throws Exception {
+        CalculatorPool pool = new CalculatorPool(130);
+        assertThat(pool.getMemorySize(), is(0L));
+
+        for(int i = 0; i < 130; i++) {
+            assertThat(pool.open(), is(i));
+            pool.setCurrentValue(i, i);
+        }
+        assertThat(pool.getSessionCount(), is(130));
+        assertThat(pool.getMemorySize(), is(130L * CalculatorPool.SESSION_SIZE));
+        assertThrows(IllegalStateException.class, pool::open);
+
+        pool.close(70);
+        pool.close(3);
+        assertThat(pool.isOpen(3), is(false));
+        assertThrows(IllegalArgumentException.class, () -> pool.getCurrentValue(3));
+        assertThrows(IllegalArgumentException.class, () -> pool.close(3));
+        assertThrows(IllegalArgumentException.class, () -> pool.getCurrentValue(130));
+        assertThrows(IllegalArgumentException.class, () -> pool.getCurrentValue(-1));
+
+        assertThat(pool.open(), is(3));
+        assertThat(pool.getCurrentValue(3), is(0.0));
+        assertThat(pool.open(), is(70));
+        assertThat(pool.getCurrentValue(129), is(129.0));
+
+        assertThrows(IllegalArgumentException.class, () -> new CalculatorPool(0));
+    }
+
+
+    /**
+     * Testing that different sessions can be used by different threads at the same time.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testConcurrentSessions() {
+        CalculatorPool pool = new CalculatorPool(CalculatorPool.SLAB_SESSIONS + 1000);
+
+        int[] sessions = IntStream.range(0, 10_000).parallel().map(i -> pool.open()).toArray();
+        assertThat(pool.getSessionCount(), is(10_000));
+
+        IntStream.of(sessions).parallel().forEach(session -> {
+            for(int i = 1; i <= 100; i++) {
+                pool.tryCalculate(session, i, '+');
+            }
+        });
+
+        for(int session : sessions) {
+            assertThat(pool.getCurrentValue(session), is(5050.0));
+        }
+    }
+}
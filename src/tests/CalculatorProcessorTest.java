@@ -0,0 +1,225 @@
+package tests;
+
+
+import calculators.Calculator;
+import calculators.CalculatorAdvanced;
+import calculators.CalculatorProcessor;
+import calculators.Operation;
+import calculators.OperatorRegistry;
+import exceptions.NullValueException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for CalculatorProcessor.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorProcessorTest {
+
+    /**
+     * Testing that the current value is published after every window and when the stream completes.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testWindows() throws Exception {
+        SubmissionPublisher<Operation> upstream = new SubmissionPublisher<>();
+        CalculatorProcessor processor = new CalculatorProcessor(new CalculatorAdvanced(), 10);
+        List<Double> values = new ArrayList<>();
+        CompletableFuture<Void> done = processor.consume(values::add);
+        upstream.subscribe(processor);
+
+        for(int i = 1; i <= 95; i++) {
+            upstream.submit(Operation.of('+', i));
+        }
+        upstream.submit(Operation.of('/', 0.0));
+        upstream.submit(Operation.advanced('x'));
+        upstream.submit(Operation.of('/', 4.0));
+        upstream.close();
+        done.get(10, TimeUnit.SECONDS);
+
+        assertThat(values.size(), is(10));
+        for(int i = 0; i < 9; i++) {
+            double n = (i + 1) * 10;
+            assertThat(values.get(i), is(n * (n + 1) / 2));
+        }
+        assertThat(values.get(9), is(95.0 * 96 / 2 / 4));
+        assertThat(processor.getOperationCount(), is(98L));
+        assertThat(processor.getErrorCount(), is(2L));
+    }
+
+
+    /**
+     * Testing that a slow subscriber limits the number of operations which are requested from upstream.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testBackpressure() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        int batchSize = 8;
+        int bufferCapacity = 4;
+
+        SubmissionPublisher<Operation> upstream = new SubmissionPublisher<>(executor, 1024);
+
+        try {
+            CountDownLatch full = new CountDownLatch(bufferCapacity + 1);
+            CountDownLatch overflow = new CountDownLatch(bufferCapacity + 2);
+            CalculatorProcessor processor = new CalculatorProcessor(new Calculator(), 1, batchSize, executor, bufferCapacity) {
+                @Override
+                public int submit(Double item) {
+                    full.countDown();
+                    overflow.countDown();
+                    return super.submit(item);
+                }
+            };
+            CountDownLatch received = new CountDownLatch(100);
+            SlowSubscriber subscriber = new SlowSubscriber(received);
+            processor.subscribe(subscriber);
+            upstream.subscribe(processor);
+
+            for(int i = 0; i < 100; i++) {
+                upstream.submit(Operation.of('+', 1.0));
+            }
+
+            // The subscriber has requested nothing, so the processor fills its buffer and blocks publishing the next value.
+            assertThat(full.await(10, TimeUnit.SECONDS), is(true));
+            assertThat(processor.getOperationCount(), is((long) bufferCapacity + 1));
+            assertThat(overflow.await(200, TimeUnit.MILLISECONDS), is(false));
+            assertThat(processor.getOperationCount(), is((long) bufferCapacity + 1));
+            assertThat(received.getCount(), is(100L));
+
+            subscriber.subscription.request(Long.MAX_VALUE);
+            upstream.close();
+            assertThat(received.await(10, TimeUnit.SECONDS), is(true));
+            assertThat(subscriber.last, is(100.0));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Testing that a closed processor cancels its subscriptions and ignores operations instead of throwing,
+     * and that an operator which throws closes the processor.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testClose() throws Exception {
+        CalculatorProcessor processor = new CalculatorProcessor(new Calculator(), 1);
+        RecordingSubscription first = new RecordingSubscription();
+        processor.onSubscribe(first);
+        processor.onNext(Operation.of('+', 1.0));
+        processor.close();
+        assertThat(first.cancelled, is(true));
+
+        RecordingSubscription second = new RecordingSubscription();
+        processor.onSubscribe(second);
+        assertThat(second.cancelled, is(true));
+
+        CalculatorProcessor closedEarly = new CalculatorProcessor(new Calculator(), 1);
+        closedEarly.close();
+        RecordingSubscription late = new RecordingSubscription();
+        closedEarly.onSubscribe(late);
+        assertThat(late.cancelled, is(true));
+        assertThat(late.requested, is(0L));
+
+        processor.onNext(Operation.of('+', 1.0));
+        processor.onComplete();
+        assertThat(processor.getOperationCount(), is(1L));
+
+        Calculator calculator = new Calculator();
+        calculator.setOperators(new OperatorRegistry().registerBinary('#', (a, b) -> {
+            throw new IllegalStateException("broken operator");
+        }));
+        CalculatorProcessor failing = new CalculatorProcessor(calculator, 1);
+        RecordingSubscription subscription = new RecordingSubscription();
+        failing.onSubscribe(subscription);
+        failing.onNext(Operation.of('#', 1.0));
+        assertThat(subscription.cancelled, is(true));
+        assertThat(failing.getClosedException().getMessage(), is("broken operator"));
+    }
+
+
+    /**
+     * Testing invalid arguments.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(NullValueException.class, () -> new CalculatorProcessor(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CalculatorProcessor(new Calculator(), 0));
+        assertThrows(NullValueException.class, () -> new CalculatorProcessor(new Calculator(), 1, 1, null, 1));
+    }
+
+
+    /**
+     * Subscription which records the requests and the cancellation.
+     */
+    private static final class RecordingSubscription implements Flow.Subscription {
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+
+    /**
+     * Subscriber which requests nothing until the test requests for it.
+     */
+    private static final class SlowSubscriber implements Flow.Subscriber<Double> {
+        private final CountDownLatch received;
+        private volatile Flow.Subscription subscription;
+        private volatile double last;
+
+        private SlowSubscriber(CountDownLatch received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Double item) {
+            last = item;
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package tests;
+
+
+import calculators.CalculatorMetrics;
+import org.junit.jupiter.api.Test;
+import service.CalculatorServer;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+
+/**
+ * Unit tests for CalculatorServer.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class CalculatorServerTest {
+
+    /**
+     * Testing every command and error of the protocol, sent as one pipelined batch.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testProtocol() throws Exception {
+        try(CalculatorServer server = new CalculatorServer(0)) {
+            CalculatorMetrics metrics = new CalculatorMetrics();
+            server.setMetrics(metrics);
+
+            List<String> answers = send(server, "SET 10", "calc / 4", "CALC / 0", "CALC % 1", "ADV 2", "GET",
+                    "SET 153", "HAS A", "HAS P", "HAS X", "SET -1", "ADV !", "HAS A", "SET abc", "HELLO", "", "CALC +");
+
+            assertThat(answers, is(List.of("OK 10.0", "OK 2.5", "ERR DivisionByZeroException", "ERR NotSupportedOperationException",
+                    "OK 4.0", "OK 4.0", "OK 153.0", "OK true", "OK false", "ERR NotSupportedOperationException", "OK -1.0",
+                    "ERR NumberNotInAreaException", "ERR NumberNotInAreaException", "ERR InvalidCommand", "ERR InvalidCommand",
+                    "ERR InvalidCommand", "ERR InvalidCommand")));
+            assertThat(metrics.getOperation('/').getCount(), is(2L));
+        }
+    }
+
+
+    /**
+     * Testing that too long lines are answered with an error without closing the session.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testLineTooLong() throws Exception {
+        try(CalculatorServer server = new CalculatorServer(0)) {
+            String longest = "SET " + "0".repeat(CalculatorServer.MAX_LINE_LENGTH - 5) + "7";
+
+            List<String> answers = send(server, "SET 5", "CALC + " + "1".repeat(100_000), "GET", longest, longest + "0\r");
+
+            assertThat(answers, is(List.of("OK 5.0", "ERR LineTooLong", "OK 5.0", "OK 7.0", "ERR LineTooLong")));
+        }
+    }
+
+
+    /**
+     * Testing that every connection has its own session and that many clients are served at the same time.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testSessions() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+
+        try(CalculatorServer server = new CalculatorServer(0)) {
+            List<Future<List<String>>> results = new ArrayList<>();
+
+            for(int i = 0; i < 64; i++) {
+                String value = Integer.toString(i);
+                results.add(clients.submit(() -> send(server, "SET " + value, "CALC * 2", "CALC + 1")));
+            }
+
+            for(int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get().get(2), is("OK " + (i * 2.0 + 1)));
+            }
+        }
+        finally {
+            clients.shutdown();
+        }
+    }
+
+
+    /**
+     * Testing that thousands of open connections are served by a few threads, with their answers in order.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testManyConnections() throws Exception {
+        List<Socket> clients = new ArrayList<>();
+
+        try(CalculatorServer server = new CalculatorServer(0)) {
+            for(int i = 0; i < 2000; i++) {
+                Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                client.setSoTimeout(10_000);
+                clients.add(client);
+                client.getOutputStream().write(("SET " + i + "\nCALC * 2\n").getBytes(StandardCharsets.US_ASCII));
+            }
+
+            long serverThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().equals("calculator-server")).count();
+            assertThat(serverThreads <= Runtime.getRuntime().availableProcessors() + 1, is(true));
+
+            for(int i = 0; i < clients.size(); i++) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(clients.get(i).getInputStream(), StandardCharsets.US_ASCII));
+                assertThat(in.readLine(), is("OK " + (double) i));
+                assertThat(in.readLine(), is("OK " + i * 2.0));
+            }
+            assertThat(server.getConnectionCount(), is(2000));
+        }
+        finally {
+            for(Socket client : clients) {
+                client.close();
+            }
+        }
+    }
+
+
+    /**
+     * Testing that closing the server closes every connection, also the ones accepted while it is closed.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testClose() throws Exception {
+        for(int round = 0; round < 20; round++) {
+            CalculatorServer server = new CalculatorServer(0);
+            List<Socket> clients = new ArrayList<>();
+
+            try {
+                for(int i = 0; i < 4; i++) {
+                    clients.add(new Socket(InetAddress.getLoopbackAddress(), server.getPort()));
+                }
+                server.close();
+
+                for(Socket client : clients) {
+                    assertThat(isClosedByServer(client), is(true));
+                }
+                assertThat(server.getConnectionCount(), is(0));
+            }
+            finally {
+                for(Socket client : clients) {
+                    client.close();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Waits until the server closes the connection, which is an end of the stream or, for a connection
+     * that was not accepted yet, a reset.
+     */
+    private static boolean isClosedByServer(Socket client) throws Exception {
+        client.setSoTimeout(10_000);
+
+        try {
+            return client.getInputStream().read() == -1;
+        }
+        catch(SocketTimeoutException e) {
+            return false;
+        }
+        catch(SocketException e) {
+            return true;
+        }
+    }
+
+
+    /**
+     * Sends all commands at once, followed by QUIT, and reads all answers.
+     */
+    private static List<String> send(CalculatorServer server, String... commands) throws Exception {
+        try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write((String.join("\n", commands) + "\nQUIT\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            List<String> answers = new ArrayList<>();
+            for(String line = in.readLine(); line != null; line = in.readLine()) {
+                answers.add(line);
+            }
+
+            return answers;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package tests;
 
 
 import calculators.Calculator;
+import calculators.Status;
 import exceptions.*;
 
 import org.junit.Test;
@@ -13,6 +14,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.ByteBuffer;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -138,6 +140,30 @@ public class CalculatorTest {
     }
 
     
+    /**
+     * Testing the primitive overload of the method <b>Calculator.calculate()</b>
+     * with the same data as the boxed one.
+     * 
+     * @param input Value parameter used for the method.
+     * @param operator The operator used for the method.
+     * @param curr The currentValue.
+     * @param result The resulting value.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("calculateParamsGood")
+    public void testCalculatePrimitiveGood(double input, char operator, double curr, double result){
+        try {
+            calculator.setCurrentValue(curr);
+            calculator.calculate(input, operator);
+        }catch (Exception e) {
+            assertThat(e.getMessage(), false);
+        }
+
+        assertThat(calculator.getCurrentValueAsDouble(), is(result));
+    }
+
+    
     /**
      * Testing the method <b>Calculator.calculate()</b> with "bad" or invalid data.
      * Checking if the exceptions get thrown correctly.
@@ -163,4 +189,170 @@ public class CalculatorTest {
     }
 
 
+    /**
+     * Testing the method <b>Calculator.calculateAll()</b>, including the index
+     * that is returned when dividing by zero.
+     * 
+     * @param operands The operands used for the method.
+     * @param operators The operators used for the method.
+     * @param curr The currentValue.
+     * @param index The expected returned index.
+     * @param result The resulting value.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("calculateAllParams")
+    public void testCalculateAll(double[] operands, char[] operators, Double curr, int index, Double result){
+        try {
+            calculator.setCurrentValue(curr);
+            assertThat(calculator.calculateAll(operands, operators), is(index));
+        }catch (Exception e) {
+            assertThat(e.getMessage(), false);
+        }
+
+        assertThat(calculator.getCurrentValue(), is(result));
+    }
+
+    private static Stream<Arguments> calculateAllParams(){
+        return Stream.of(
+                Arguments.of(new double[] {}, new char[] {}, 3.0, -1, 3.0),
+                Arguments.of(new double[] {2.0, 3.0, 4.0, 2.0}, new char[] {'+', '*', '-', '/'}, 1.0, -1, 2.5),
+                Arguments.of(new double[] {2.0, 0.0, 4.0}, new char[] {'*', '/', '+'}, 1.5, 1, 3.0)
+        );
+    }
+
+
+    /**
+     * Testing the method <b>Calculator.fold()</b>, including the index
+     * that is returned when dividing by zero.
+     * 
+     * @param values The values used for the method.
+     * @param operator The operator used for the method.
+     * @param curr The currentValue.
+     * @param index The expected returned index.
+     * @param result The resulting value.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("foldParams")
+    public void testFold(double[] values, char operator, Double curr, int index, Double result){
+        try {
+            calculator.setCurrentValue(curr);
+            assertThat(calculator.fold(values, operator), is(index));
+        }catch (Exception e) {
+            assertThat(e.getMessage(), false);
+        }
+
+        assertThat(calculator.getCurrentValue(), is(result));
+    }
+
+    private static Stream<Arguments> foldParams(){
+        return Stream.of(
+                Arguments.of(new double[] {1.0, 2.0, 3.0}, '+', 0.0, -1, 6.0),
+                Arguments.of(new double[] {1.0, 2.0, 3.0}, '-', 10.0, -1, 4.0),
+                Arguments.of(new double[] {2.0, 2.5}, '*', 2.0, -1, 10.0),
+                Arguments.of(new double[] {2.0, 4.0}, '/', 16.0, -1, 2.0),
+                Arguments.of(new double[] {2.0, 0.0, 4.0}, '/', 16.0, 1, 8.0)
+        );
+    }
+
+
+    /**
+     * Testing the batch methods <b>Calculator.calculateAll()</b> and <b>Calculator.fold()</b>
+     * with "bad" or invalid data.
+     * 
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testBatchBad(){
+        assertThrows(NullValueException.class, () -> calculator.fold(null, '+'));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.fold(new double[] {1.0}, '|'));
+        assertThrows(NullValueException.class, () -> calculator.calculateAll(null, new char[] {}));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculateAll(new double[] {1.0}, new char[] {}));
+        assertThrows(NotSupportedOperationException.class,
+                () -> calculator.calculateAll(new double[] {1.0, 2.0}, new char[] {'+', '|'}));
+        assertThat(calculator.getCurrentValue(), is(1.0));
+    }
+
+
+    /**
+     * Testing the method <b>Calculator.tryCalculate()</b>, which reports errors with status codes.
+     * 
+     * @param input The value parameter used for the method.
+     * @param operator The operator used for the method.
+     * @param status The expected status code.
+     * @param result The resulting value.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("tryCalculateParams")
+    public void testTryCalculate(double input, char operator, int status, Double result){
+        try {
+            calculator.setCurrentValue(6.0);
+        }
+        catch (NullValueException e) {
+            assertThat(e.getMessage(), false);
+        }
+
+        assertThat(calculator.tryCalculate(input, operator), is(status));
+        assertThat(calculator.getCurrentValue(), is(result));
+    }
+
+    private static Stream<Arguments> tryCalculateParams(){
+        return Stream.of(
+                Arguments.of(2.0, '+', Status.OK, 8.0),
+                Arguments.of(2.0, '/', Status.OK, 3.0),
+                Arguments.of(0.0, '/', Status.DIVISION_BY_ZERO, 6.0),
+                Arguments.of(2.0, '|', Status.NOT_SUPPORTED_OPERATION, 6.0)
+        );
+    }
+
+
+    /**
+     * Testing that stackless exceptions are preallocated and have no stack trace.
+     * 
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testStacklessExceptions(){
+        assertThat(calculator.isStacklessExceptions(), is(false));
+        Throwable normal = assertThrows(DivisionByZeroException.class, () -> calculator.calculate(0.0, '/'));
+        assertThat(normal.getStackTrace().length > 0, is(true));
+
+        calculator.setStacklessExceptions(true);
+        Throwable first = assertThrows(DivisionByZeroException.class, () -> calculator.calculate(0.0, '/'));
+        Throwable second = assertThrows(DivisionByZeroException.class, () -> calculator.calculate(0.0, '/'));
+        assertThat(first, is(sameInstance(second)));
+        assertThat(first.getStackTrace().length, is(0));
+        assertThat(first.getMessage(), is(normal.getMessage()));
+
+        assertThrows(NotSupportedOperationException.class, () -> calculator.calculate(1.0, '|'));
+        assertThrows(NullValueException.class, () -> calculator.setCurrentValue(null));
+    }
+
+
+    /**
+     * Testing that the state written by one calculator is restored by another.
+     *
+     * @since 1.1
+     */
+    @org.junit.jupiter.api.Test
+    public void testState() throws Exception{
+        calculator.setCurrentValue(-12.75);
+        calculator.setStacklessExceptions(true);
+
+        ByteBuffer buffer = ByteBuffer.allocate(Calculator.STATE_SIZE);
+        calculator.writeTo(buffer);
+        assertThat(buffer.remaining(), is(0));
+
+        Calculator restored = new Calculator();
+        restored.readFrom(buffer.flip());
+        assertThat(restored.getCurrentValue(), is(-12.75));
+        assertThat(restored.isStacklessExceptions(), is(true));
+
+        buffer.put(0, (byte) 99).rewind();
+        assertThrows(IllegalArgumentException.class, () -> restored.readFrom(buffer));
+        assertThrows(java.nio.BufferUnderflowException.class, () -> restored.readFrom(ByteBuffer.allocate(1).put(0, (byte) 1)));
+        assertThat(restored.getCurrentValue(), is(-12.75));
+    }
 }
@@ -0,0 +1,117 @@
+package tests;
+
+
+import calculators.ConcurrentCalculator;
+import exceptions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for ConcurrentCalculator.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ConcurrentCalculatorTest {
+    private final ConcurrentCalculator calculator = new ConcurrentCalculator(4);
+
+
+    /**
+     * Testing that a single thread gets the same results as with Calculator.
+     *
+     * @param input Value parameter used for the method.
+     * @param operator The operator used for the method.
+     * @param curr The currentValue.
+     * @param result The resulting value.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("calculateParamsGood")
+    public void testCalculateGood(Double input, char operator, Double curr, Double result) throws Exception{
+        calculator.setCurrentValue(curr);
+        calculator.calculate(input, operator);
+
+        assertThat(calculator.getCurrentValue(), is(result));
+    }
+
+    private static Stream<Arguments> calculateParamsGood(){
+        return Stream.of(
+                Arguments.of(25.0, '+', 0.0, 25.0),
+                Arguments.of(26.0, '-', 1.0, -25.0),
+                Arguments.of(5.0, '*', 7.5, 37.5),
+                Arguments.of(-2.0, '/', -16.0, 8.0)
+        );
+    }
+
+
+    /**
+     * Testing that no updates are lost when many threads add and multiply at the same time.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testConcurrentUpdates() throws Exception{
+        final int threads = 8;
+        final int additions = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for(int t = 0; t < threads; t++) {
+            final boolean multiplies = t == 0;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for(int i = 0; i < additions; i++) {
+                        calculator.calculate(1.0, '+');
+                        if(multiplies && i % 1000 == 0) {
+                            calculator.calculate(1.0, '*');
+                        }
+                    }
+                }
+                catch(Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for(Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(calculator.getCurrentValueAsDouble(), is((double) threads * additions));
+
+        calculator.calculate(2.0, '/');
+        assertThat(calculator.getCurrentValueAsDouble(), is(threads * additions / 2.0));
+    }
+
+
+    /**
+     * Testing the method <b>ConcurrentCalculator.calculate()</b> with "bad" or invalid data.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testCalculateBad() {
+        assertThat(assertThrows(NullValueException.class, () -> calculator.calculate(null, '+')), instanceOf(NullValueException.class));
+        assertThrows(DivisionByZeroException.class, () -> calculator.calculate(0.0, '/'));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.calculate(2.0, '|'));
+        assertThrows(NullValueException.class, () -> calculator.setCurrentValue(null));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentCalculator(0));
+    }
+}
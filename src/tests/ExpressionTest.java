@@ -0,0 +1,121 @@
+package tests;
+
+
+import calculators.Expression;
+import exceptions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for Expression.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ExpressionTest {
+
+    /**
+     * Testing "good" or useful behavior of the methods <b>Expression.compile()</b> and <b>Expression.evaluate()</b>.
+     *
+     * @param source The expression.
+     * @param values The values of the variables.
+     * @param result The resulting value.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @MethodSource("evaluateParamsGood")
+    public void testEvaluateGood(String source, double[] values, double result) throws Exception{
+        assertThat(Expression.compile(source).evaluate(values), is(result));
+    }
+
+    private static Stream<Arguments> evaluateParamsGood(){
+        return Stream.of(
+                Arguments.of("(a+b)*c/d", new double[] {1.0, 2.0, 4.0, 8.0}, 1.5),
+                Arguments.of("a + b * c", new double[] {1.0, 2.0, 4.0}, 9.0),
+                Arguments.of("10 - 4 - 3", new double[] {}, 3.0),
+                Arguments.of("-x^2", new double[] {3.0}, -9.0),
+                Arguments.of("(-x)^3 + x^-1", new double[] {2.0}, -7.5),
+                Arguments.of("3! * 2.5e1", new double[] {}, 150.0),
+                Arguments.of("x! + x", new double[] {5.5}, 125.5),
+                Arguments.of("rate_1 * rate_1 / rate_1", new double[] {7.0}, 7.0)
+        );
+    }
+
+
+    /**
+     * Testing that variables are numbered in the order in which they first appear.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testVariables() throws Exception{
+        Expression expression = Expression.compile("b * a + b");
+
+        assertThat(expression.getVariables(), is(new String[] {"b", "a"}));
+        assertThat(expression.indexOf("a"), is(1));
+        assertThat(expression.indexOf("c"), is(-1));
+        assertThat(expression.toString(), is("b * a + b"));
+
+        double[] values = new double[2];
+        for(int i = 0; i < 100; i++) {
+            values[0] = i;
+            values[1] = 2.0;
+            assertThat(expression.evaluate(values), is(3.0 * i));
+        }
+    }
+
+
+    /**
+     * Testing the method <b>Expression.compile()</b> with expressions that are not written correctly.
+     *
+     * @param source The expression.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1 +", "(a + b", "a + b)", "a ^ b", "a ^ 2 ^ 3", "2 $ 3", "1.2.3"})
+    public void testCompileBad(String source) {
+        assertThrows(InvalidExpressionException.class, () -> Expression.compile(source));
+    }
+
+
+    /**
+     * Testing that deeply nested expressions are rejected instead of overflowing the stack.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testNesting() throws Exception{
+        int depth = Expression.MAX_DEPTH;
+        assertThat(Expression.compile("(".repeat(depth) + "a" + ")".repeat(depth)).evaluate(2.0), is(2.0));
+        assertThat(Expression.compile("-".repeat(depth) + "a").evaluate(2.0), is(2.0));
+
+        assertThrows(InvalidExpressionException.class, () -> Expression.compile("(".repeat(depth + 1) + "a" + ")".repeat(depth + 1)));
+        assertThrows(InvalidExpressionException.class, () -> Expression.compile("(".repeat(100_000) + "a" + ")".repeat(100_000)));
+        assertThrows(InvalidExpressionException.class, () -> Expression.compile("-".repeat(100_000) + "a"));
+    }
+
+
+    /**
+     * Testing the method <b>Expression.evaluate()</b> with "bad" or invalid data.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testEvaluateBad() throws Exception{
+        assertThrows(DivisionByZeroException.class, () -> Expression.compile("a / (b - b)").evaluate(1.0, 2.0));
+        assertThrows(DivisionByZeroException.class, () -> Expression.compile("1 / 0").evaluate());
+        assertThrows(NumberNotInAreaException.class, () -> Expression.compile("a!").evaluate(171.0));
+        assertThrows(IllegalArgumentException.class, () -> Expression.compile("a + b").evaluate(1.0));
+        assertThrows(NullValueException.class, () -> Expression.compile(null));
+    }
+}
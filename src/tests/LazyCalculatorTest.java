@@ -0,0 +1,232 @@
+package tests;
+
+
+import calculators.Calculator;
+import calculators.CalculatorMetrics;
+import calculators.LazyCalculator;
+import calculators.OperatorRegistry;
+import calculators.Status;
+import exceptions.DivisionByZeroException;
+import exceptions.NotSupportedOperationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for LazyCalculator.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class LazyCalculatorTest {
+
+    /**
+     * Testing that runs of operations are recorded and performed when the current value is read.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testFusion() throws Exception {
+        LazyCalculator calculator = new LazyCalculator();
+        calculator.setCurrentValue(10.0);
+
+        calculator.calculate(3.0, '+');
+        calculator.calculate(4.0, '+');
+        calculator.calculate(2.0, '-');
+        assertThat(calculator.hasPendingOperations(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(15.0));
+        assertThat(calculator.hasPendingOperations(), is(false));
+
+        calculator.calculate(2.0, '*');
+        calculator.calculate(4.0, '/');
+        calculator.calculate(1.0, '+');
+        calculator.calculate(3.0, '*');
+        assertThat(calculator.getCurrentValue(), is(25.5));
+
+        calculator.calculate(5.0, '+');
+        calculator.setCurrentValue(1.0);
+        assertThat(calculator.getCurrentValueAsDouble(), is(1.0));
+    }
+
+
+    /**
+     * Testing that errors are reported immediately and do not change the recorded operations.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testErrors() throws Exception {
+        LazyCalculator calculator = new LazyCalculator();
+        calculator.setCurrentValue(7.0);
+        calculator.calculate(2.0, '*');
+
+        assertThrows(DivisionByZeroException.class, () -> calculator.calculate(0.0, '/'));
+        assertThat(calculator.tryCalculate(1.0, '%'), is(Status.NOT_SUPPORTED_OPERATION));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.calculate(1.0, '%'));
+        assertThat(calculator.getCurrentValueAsDouble(), is(14.0));
+
+        calculator.setOperators(new OperatorRegistry().registerBinary('%', (a, b) -> a % b));
+        calculator.calculate(1.0, '+');
+        calculator.calculate(4.0, '%');
+        assertThat(calculator.getCurrentValueAsDouble(), is(3.0));
+    }
+
+
+    /**
+     * Testing that the methods which read the state or work with arrays see the recorded operations.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testFlush() throws Exception {
+        LazyCalculator calculator = new LazyCalculator();
+        calculator.calculate(2.0, '+');
+        calculator.fold(new double[] {3.0, 4.0}, '*');
+        assertThat(calculator.getCurrentValueAsDouble(), is(24.0));
+
+        calculator.calculate(6.0, '-');
+        calculator.calculateAll(new double[] {2.0}, new char[] {'/'});
+        calculator.calculate(1.0, '+');
+        calculator.calculateParallel(new double[] {2.0, 5.0}, '*');
+        assertThat(calculator.getCurrentValueAsDouble(), is(100.0));
+
+        calculator.calculate(1.0, '+');
+        ByteBuffer buffer = ByteBuffer.allocate(Calculator.STATE_SIZE);
+        calculator.writeTo(buffer);
+        buffer.flip();
+        Calculator restored = new Calculator();
+        restored.readFrom(buffer);
+        assertThat(restored.getCurrentValueAsDouble(), is(101.0));
+
+        calculator.calculate(1.0, '+');
+        buffer.flip();
+        calculator.readFrom(buffer);
+        assertThat(calculator.getCurrentValueAsDouble(), is(101.0));
+
+        CalculatorMetrics metrics = new CalculatorMetrics();
+        calculator.calculate(9.0, '+');
+        calculator.setMetrics(metrics);
+        calculator.calculate(10.0, '*');
+        assertThat(calculator.hasPendingOperations(), is(false));
+        assertThat(calculator.getCurrentValueAsDouble(), is(1100.0));
+        assertThat(metrics.getOperation('*').getCount(), is(1L));
+    }
+
+
+    /**
+     * Testing that random chains give the same results as Calculator up to rounding.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testRandomChains() throws Exception {
+        Random random = new Random(42);
+
+        for(int chain = 0; chain < 100; chain++) {
+            Calculator eager = new Calculator();
+            LazyCalculator lazy = new LazyCalculator();
+
+            for(int i = 0; i < 50; i++) {
+                double value = 1.0 + random.nextDouble();
+                char operator = "+-*/".charAt(random.nextInt(4));
+
+                eager.calculate(value, operator);
+                lazy.calculate(value, operator);
+            }
+
+            double expected = eager.getCurrentValueAsDouble();
+            assertThat(lazy.getCurrentValueAsDouble(), closeTo(expected, Math.abs(expected) * 1e-12 + 1e-12));
+        }
+    }
+
+
+    /**
+     * Testing that runs whose factor would overflow or underflow give the same results as Calculator.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testExtremeFactors() throws Exception {
+        double[][] chains = {
+                {1e200, 1e200},
+                {1e-200, 1e-200},
+                {Double.MAX_VALUE, 0.5, Double.MIN_VALUE},
+                {Double.POSITIVE_INFINITY, 2.0},
+                {Double.MIN_VALUE, Double.MAX_VALUE},
+        };
+
+        for(double start : new double[] {0.0, 1.0, -3.0}) {
+            for(double[] chain : chains) {
+                for(char operator : new char[] {'*', '/'}) {
+                    Calculator eager = new Calculator();
+                    LazyCalculator lazy = new LazyCalculator();
+                    eager.setCurrentValue(start);
+                    lazy.setCurrentValue(start);
+
+                    for(double value : chain) {
+                        eager.calculate(value, operator);
+                        lazy.calculate(value, operator);
+                    }
+
+                    assertThat(lazy.getCurrentValueAsDouble(), is(eager.getCurrentValueAsDouble()));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Testing that runs whose sum would overflow, or which add infinite values, give NaN or an infinite value
+     * only where Calculator does.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testExtremeSums() throws Exception {
+        double[][] chains = {
+                {1e308, 1e308},
+                {1e308, 1e308, Double.NEGATIVE_INFINITY},
+                {Double.POSITIVE_INFINITY, 1.0},
+                {Double.NaN, 1.0},
+                {-Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE},
+        };
+
+        for(double start : new double[] {-1e308, 0.0, 1e308}) {
+            for(double[] chain : chains) {
+                Calculator eager = new Calculator();
+                LazyCalculator lazy = new LazyCalculator();
+                eager.setCurrentValue(start);
+                lazy.setCurrentValue(start);
+
+                for(double value : chain) {
+                    eager.calculate(value, '+');
+                    lazy.calculate(value, '+');
+                }
+
+                // An intermediate overflow of Calculator can be avoided by fusing, but never the other way around.
+                double expected = eager.getCurrentValueAsDouble();
+                if(Double.isInfinite(expected)) {
+                    assertThat(Double.isNaN(lazy.getCurrentValueAsDouble()), is(false));
+                }
+                else {
+                    assertThat(lazy.getCurrentValueAsDouble(), is(expected));
+                }
+            }
+        }
+
+        LazyCalculator lazy = new LazyCalculator();
+        lazy.setCurrentValue(-1e308);
+        lazy.calculate(1e308, '+');
+        lazy.calculate(1e308, '+');
+        assertThat(lazy.getCurrentValueAsDouble(), is(1e308));
+        lazy.calculate(Double.NEGATIVE_INFINITY, '+');
+        assertThat(lazy.getCurrentValueAsDouble(), is(Double.NEGATIVE_INFINITY));
+    }
+}
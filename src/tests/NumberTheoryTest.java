@@ -0,0 +1,116 @@
+package tests;
+
+
+import calculators.NumberTheory;
+import exceptions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for NumberTheory.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class NumberTheoryTest {
+
+    /**
+     * Testing the method <b>NumberTheory.sigma()</b> against adding all divisors one by one.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testSigmaSmall() throws Exception{
+        for(long n = 1; n <= 2000; n++) {
+            long sum = 0;
+            for(long i = 1; i <= n; i++) {
+                if(n % i == 0) sum += i;
+            }
+
+            assertThat("sigma(" + n + ")", NumberTheory.sigma(n), is(sum));
+        }
+    }
+
+
+    /**
+     * Testing that the factorization of big numbers multiplies back to the number
+     * and contains only primes.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testFactorLarge() throws Exception{
+        Random random = new Random(42);
+        long[] numbers = new long[50];
+        for(int i = 0; i < numbers.length; i++) {
+            numbers[i] = (random.nextLong() >>> 1) | 1;
+        }
+        numbers[0] = 4611686014132420609L;          // (2^31 - 1)^2
+        numbers[1] = 1000000007L * 998244353L;
+
+        for(long n : numbers) {
+            long product = 1;
+            for(long factor : NumberTheory.factor(n)) {
+                assertThat(factor + " should be prime", BigInteger.valueOf(factor).isProbablePrime(50), is(true));
+                product *= factor;
+            }
+            assertThat(product, is(n));
+        }
+    }
+
+
+    /**
+     * Testing the method <b>NumberTheory.isPrime()</b> against BigInteger.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testIsPrime() {
+        Random random = new Random(7);
+        for(int i = 0; i < 2000; i++) {
+            long n = i < 1000 ? i : random.nextLong() >>> 1;
+            assertThat("isPrime(" + n + ")", NumberTheory.isPrime(n), is(BigInteger.valueOf(n).isProbablePrime(50)));
+        }
+
+        assertThat(NumberTheory.isPrime(3215031751L), is(false));       // strong pseudoprime to bases 2, 3, 5 and 7
+        assertThat(NumberTheory.isPrime(Long.MAX_VALUE - 24), is(true));
+    }
+
+
+    /**
+     * Testing the method <b>NumberTheory.isPerfect()</b> with all perfect numbers that fit in a long.
+     *
+     * @param n The perfect number.
+     * @since 1.1
+     */
+    @ParameterizedTest
+    @ValueSource(longs = {6L, 28L, 496L, 8128L, 33550336L, 8589869056L, 137438691328L, 2305843008139952128L})
+    public void testIsPerfect(long n) throws Exception{
+        assertThat(NumberTheory.isPerfect(n), is(true));
+        assertThat(NumberTheory.isPerfect(n + 2), is(false));
+        assertThat(NumberTheory.sigma(n), is(2 * n));
+    }
+
+
+    /**
+     * Testing the methods with "bad" or invalid data.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testBad() throws Exception{
+        assertThrows(NumberNotInAreaException.class, () -> NumberTheory.sigma(0));
+        assertThrows(NumberNotInAreaException.class, () -> NumberTheory.factor(-5));
+        assertThrows(ArithmeticException.class, () -> NumberTheory.sigma(Long.MAX_VALUE - 1));
+        assertThat(NumberTheory.isPerfect(Long.MAX_VALUE - 1), is(false));
+    }
+}
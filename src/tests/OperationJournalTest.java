@@ -0,0 +1,261 @@
+package tests;
+
+
+import calculators.Calculator;
+import calculators.CalculatorAdvanced;
+import calculators.CalculatorMetrics;
+import calculators.OperationJournal;
+import calculators.OperatorRegistry;
+import calculators.RunningStatistics;
+import exceptions.DivisionByZeroException;
+import exceptions.NotSupportedOperationException;
+import exceptions.NullValueException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for OperationJournal.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class OperationJournalTest {
+
+    /**
+     * Testing that every undo restores the value before the operation and that redo performs it again.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testUndoRedo() throws Exception {
+        Calculator calculator = new Calculator();
+        OperationJournal journal = new OperationJournal(calculator, 16, 4);
+        double[] values = new double[11];
+
+        for(int i = 1; i < values.length; i++) {
+            if(i == 5) {
+                journal.setCurrentValue(100.0);
+            }
+            else {
+                journal.calculate(i, "+-*/".charAt(i % 4));
+            }
+            values[i] = calculator.getCurrentValueAsDouble();
+        }
+
+        for(int i = values.length - 2; i >= 0; i--) {
+            assertThat(journal.undo(), is(true));
+            assertThat(calculator.getCurrentValueAsDouble(), is(values[i]));
+        }
+        assertThat(journal.undo(), is(false));
+
+        for(int i = 1; i <= 6; i++) {
+            assertThat(journal.redo(), is(true));
+            assertThat(calculator.getCurrentValueAsDouble(), is(values[i]));
+        }
+
+        journal.calculate(3.0, '*');
+        assertThat(journal.canRedo(), is(false));
+        assertThat(journal.size(), is(7));
+        assertThat(journal.undo(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(values[6]));
+    }
+
+
+    /**
+     * Testing that the journal drops the oldest operations when it is full and can still undo the rest.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testCapacity() throws Exception {
+        Calculator calculator = new Calculator();
+        OperationJournal journal = new OperationJournal(calculator, 10, 4);
+        assertThat(journal.getCapacity(), is(12));
+
+        for(int i = 1; i <= 100; i++) {
+            journal.calculate(i, '+');
+        }
+        assertThat(journal.size() <= journal.getCapacity(), is(true));
+
+        int undone = 0;
+        while(journal.undo()) {
+            undone++;
+        }
+        assertThat(undone, is(journal.size()));
+
+        double first = 100 - undone;
+        assertThat(calculator.getCurrentValueAsDouble(), is(first * (first + 1) / 2));
+    }
+
+
+    /**
+     * Testing replaying the journal on another calculator, advanced operations and failed operations.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testReplay() throws Exception {
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        OperationJournal journal = new OperationJournal(calculator);
+
+        journal.calculate(3.0, '+');
+        journal.calculateAdvanced('!');
+        journal.calculateAdvanced('2');
+        assertThrows(DivisionByZeroException.class, () -> journal.calculate(0.0, '/'));
+        assertThrows(NotSupportedOperationException.class, () -> journal.calculate(1.0, '%'));
+        journal.calculate(4.0, '-');
+        journal.undo();
+
+        CalculatorAdvanced copy = new CalculatorAdvanced();
+        assertThat(journal.replay(copy), is(3));
+        assertThat(copy.getCurrentValueAsDouble(), is(36.0));
+        assertThat(calculator.getCurrentValueAsDouble(), is(36.0));
+
+        Calculator basic = new Calculator();
+        basic.setCurrentValue(5.0);
+        assertThrows(NotSupportedOperationException.class, () -> journal.replay(basic));
+        assertThat(basic.getCurrentValueAsDouble(), is(5.0));
+
+        ByteBuffer buffer = ByteBuffer.allocate(journal.getStateSize());
+        journal.writeTo(buffer);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> new OperationJournal(basic).readFrom(buffer));
+
+        journal.clear();
+        assertThat(journal.canUndo(), is(false));
+        assertThat(journal.replay(copy), is(0));
+
+        assertThrows(NotSupportedOperationException.class, () -> new OperationJournal(new Calculator()).calculateAdvanced('!'));
+        assertThrows(NullValueException.class, () -> journal.setCurrentValue(null));
+        assertThrows(NullValueException.class, () -> new OperationJournal(null));
+        assertThrows(IllegalArgumentException.class, () -> new OperationJournal(calculator, 0, 1));
+    }
+
+
+    /**
+     * Testing that '=' registered as a binary operator is not mistaken for setting the current value.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testOperatorLikeSetValue() throws Exception {
+        Calculator calculator = new Calculator();
+        calculator.setOperators(new OperatorRegistry().registerBinary('=', (a, b) -> a * 10.0 + b));
+        OperationJournal journal = new OperationJournal(calculator, 8, 4);
+
+        journal.setCurrentValue(1.0);
+        journal.calculate(2.0, '=');
+        journal.calculate(3.0, '=');
+        assertThat(calculator.getCurrentValueAsDouble(), is(123.0));
+
+        assertThat(journal.undo(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(12.0));
+        assertThat(journal.redo(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(123.0));
+
+        ByteBuffer buffer = ByteBuffer.allocate(journal.getStateSize());
+        journal.writeTo(buffer);
+        buffer.flip();
+        OperationJournal restored = new OperationJournal(calculator, 8, 4);
+        restored.readFrom(buffer);
+        assertThat(restored.undo() && restored.undo(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(1.0));
+    }
+
+    /**
+     * Testing that undoing and replaying operations does not pass their operands to the operand observer again.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testUndoIsNotObserved() throws Exception {
+        Calculator calculator = new Calculator();
+        RunningStatistics statistics = new RunningStatistics();
+        calculator.setOperandObserver(statistics);
+        OperationJournal journal = new OperationJournal(calculator, 16, 4);
+
+        for(int i = 1; i <= 10; i++) {
+            journal.calculate(i, '+');
+        }
+        assertThat(journal.undo(), is(true));
+        assertThat(journal.redo(), is(true));
+        journal.replay(calculator);
+
+        assertThat(calculator.getCurrentValueAsDouble(), is(55.0));
+        assertThat(statistics.getCount(), is(10L));
+        assertThat(statistics.getMean(), is(5.5));
+    }
+
+
+    /**
+     * Testing that undoing and replaying operations does not record them to the metrics again.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testUndoIsNotMeasured() throws Exception {
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        CalculatorMetrics metrics = new CalculatorMetrics();
+        calculator.setMetrics(metrics);
+        OperationJournal journal = new OperationJournal(calculator, 16, 4);
+
+        for(int i = 1; i <= 10; i++) {
+            journal.calculate(i, '+');
+        }
+        journal.calculateAdvanced('2');
+        assertThat(journal.undo() && journal.undo(), is(true));
+        assertThat(journal.redo() && journal.redo(), is(true));
+        journal.replay(calculator);
+
+        assertThat(calculator.getCurrentValueAsDouble(), is(3025.0));
+        assertThat(metrics.getOperation('+').getCount(), is(10L));
+        assertThat(metrics.getOperation('2').getCount(), is(1L));
+        assertThat(metrics.getOperationCount(), is(11L));
+    }
+
+
+    /**
+     * Testing that a journal written on one calculator can be restored and undone on another.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testState() throws Exception {
+        Calculator calculator = new Calculator();
+        OperationJournal journal = new OperationJournal(calculator, 8, 4);
+
+        for(int i = 1; i <= 20; i++) {
+            journal.calculate(i, '+');
+        }
+        journal.undo();
+
+        ByteBuffer buffer = ByteBuffer.allocate(Calculator.STATE_SIZE + journal.getStateSize());
+        calculator.writeTo(buffer);
+        journal.writeTo(buffer);
+        assertThat(buffer.remaining(), is(0));
+        buffer.flip();
+
+        Calculator restoredCalculator = new Calculator();
+        OperationJournal restored = new OperationJournal(restoredCalculator, 12, 4);
+        restoredCalculator.readFrom(buffer);
+        restored.readFrom(buffer);
+
+        assertThat(restored.size(), is(journal.size()));
+        assertThat(restoredCalculator.getCurrentValueAsDouble(), is(190.0));
+        assertThat(restored.redo(), is(true));
+        assertThat(restoredCalculator.getCurrentValueAsDouble(), is(210.0));
+        assertThat(restored.undo() && restored.undo(), is(true));
+        assertThat(restoredCalculator.getCurrentValueAsDouble(), is(171.0));
+
+        buffer.rewind().position(Calculator.STATE_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> new OperationJournal(new Calculator(), 4, 4).readFrom(buffer));
+        buffer.position(Calculator.STATE_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> new OperationJournal(new Calculator(), 8, 2).readFrom(buffer));
+    }
+}
@@ -0,0 +1,173 @@
+package tests;
+
+
+import calculators.Calculator;
+import calculators.CalculatorAdvanced;
+import calculators.CalculatorPool;
+import calculators.OperationJournal;
+import calculators.OperatorRegistry;
+import calculators.Status;
+import exceptions.DivisionByZeroException;
+import exceptions.NotSupportedOperationException;
+import exceptions.NullValueException;
+import exceptions.NumberNotInAreaException;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for OperatorRegistry.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class OperatorRegistryTest {
+
+    /**
+     * Testing custom binary operators with calculate, calculateAll and fold.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testBinaryOperators() throws Exception {
+        Calculator calculator = new Calculator();
+        calculator.setOperators(new OperatorRegistry()
+                .registerBinary('%', (a, b) -> a % b)
+                .registerBinary('m', Math::min)
+                .registerBinary('M', Math::max));
+
+        calculator.setCurrentValue(17.0);
+        calculator.calculate(5.0, '%');
+        assertThat(calculator.getCurrentValueAsDouble(), is(2.0));
+
+        calculator.calculate(10.0, 'M');
+        calculator.calculate(4.0, '+');
+        calculator.calculate(7.0, 'm');
+        assertThat(calculator.getCurrentValueAsDouble(), is(7.0));
+
+        assertThat(calculator.calculateAll(new double[] {3.0, 20.0, 4.0}, new char[] {'*', 'm', '%'}), is(-1));
+        assertThat(calculator.getCurrentValueAsDouble(), is(0.0));
+
+        calculator.fold(new double[] {-1.0, 9.0, 3.0}, 'M');
+        assertThat(calculator.getCurrentValueAsDouble(), is(9.0));
+
+        assertThat(calculator.tryCalculate(1.0, '^'), is(Status.NOT_SUPPORTED_OPERATION));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.fold(new double[] {1.0}, '^'));
+        assertThrows(NotSupportedOperationException.class, () -> new Calculator().calculate(5.0, '%'));
+    }
+
+
+    /**
+     * Testing that an ArithmeticException of a binary operator is reported as a status and does not change the value.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testBinaryOperatorErrors() throws Exception {
+        OperatorRegistry registry = new OperatorRegistry().registerBinary('i', (a, b) -> Math.floorDiv((long) a, (long) b));
+        Calculator calculator = new Calculator();
+        calculator.setOperators(registry);
+
+        calculator.setCurrentValue(17.0);
+        assertThat(calculator.tryCalculate(0.5, 'i'), is(Status.NUMBER_NOT_IN_AREA));
+        assertThat(calculator.getCurrentValueAsDouble(), is(17.0));
+        assertThrows(ArithmeticException.class, () -> calculator.calculate(0.0, 'i'));
+        calculator.calculate(5.0, 'i');
+        assertThat(calculator.getCurrentValueAsDouble(), is(3.0));
+
+        assertThrows(ArithmeticException.class, () -> calculator.fold(new double[] {1.0, 0.0, 1.0}, 'i'));
+        assertThat(calculator.getCurrentValueAsDouble(), is(3.0));
+        assertThrows(ArithmeticException.class, () -> calculator.calculateAll(new double[] {2.0, 0.0}, new char[] {'+', 'i'}));
+        assertThat(calculator.getCurrentValueAsDouble(), is(5.0));
+
+        CalculatorPool pool = new CalculatorPool(1);
+        pool.setOperators(registry);
+        int session = pool.open();
+        assertThat(pool.tryCalculate(session, 0.0, 'i'), is(Status.NUMBER_NOT_IN_AREA));
+        assertThrows(ArithmeticException.class, () -> pool.calculate(session, 0.0, 'i'));
+        pool.close(session);
+
+        assertThat(OperatorRegistry.defaults().getBinary('/'), is(nullValue()));
+        assertThrows(DivisionByZeroException.class, () -> new Calculator().calculate(0.0, '/'));
+    }
+
+
+    /**
+     * Testing custom unary operators and that an ArithmeticException is reported as NumberNotInAreaException.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testUnaryOperators() throws Exception {
+        CalculatorAdvanced calculator = new CalculatorAdvanced();
+        calculator.setOperators(new OperatorRegistry()
+                .registerUnary('r', Math::sqrt)
+                .registerUnary('l', a -> {
+                    if(a <= 0.0) {
+                        throw new ArithmeticException("The logarithm is defined only for positive numbers!");
+                    }
+                    return Math.log10(a);
+                }));
+
+        calculator.setCurrentValue(10_000.0);
+        calculator.calculateAdvanced('r');
+        assertThat(calculator.getCurrentValueAsDouble(), is(100.0));
+        calculator.calculateAdvanced('l');
+        assertThat(calculator.getCurrentValueAsDouble(), is(2.0));
+
+        calculator.setCurrentValue(-1.0);
+        assertThrows(NumberNotInAreaException.class, () -> calculator.calculateAdvanced('l'));
+        assertThat(calculator.getCurrentValueAsDouble(), is(-1.0));
+        assertThrows(NotSupportedOperationException.class, () -> calculator.calculate(1.0, 'r'));
+
+        OperationJournal journal = new OperationJournal(calculator);
+        calculator.setCurrentValue(81.0);
+        journal.calculateAdvanced('r');
+        journal.calculateAdvanced('r');
+        assertThat(journal.undo(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(9.0));
+        assertThat(journal.redo(), is(true));
+        assertThat(calculator.getCurrentValueAsDouble(), is(3.0));
+    }
+
+
+    /**
+     * Testing the default registry, copies and invalid registrations.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testRegistry() throws Exception {
+        OperatorRegistry defaults = OperatorRegistry.defaults();
+        assertThat(defaults.isFrozen(), is(true));
+        assertThat(defaults.getBinary('+'), is(nullValue()));
+        assertThat(defaults.getUnary('3'), is(nullValue()));
+        assertThat(defaults.getUnary('!'), is(nullValue()));
+        assertThat(OperatorRegistry.isBuiltIn('!'), is(true));
+        assertThat(defaults.getBinary('%'), is(nullValue()));
+        assertThat(defaults.getBinary('€'), is(nullValue()));
+        assertThat(new Calculator().getOperators(), is(defaults));
+        assertThrows(UnsupportedOperationException.class, () -> defaults.registerBinary('%', (a, b) -> a % b));
+
+        OperatorRegistry registry = defaults.copy().registerBinary('%', (a, b) -> a % b);
+        assertThat(registry.isFrozen(), is(false));
+        assertThat(defaults.getBinary('%'), is(nullValue()));
+        assertThat(registry.freeze().getBinary('%').applyAsDouble(7.0, 4.0), is(3.0));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.registerBinary('/', (a, b) -> a / b));
+        assertThrows(IllegalArgumentException.class, () -> registry.registerUnary('%', Math::abs));
+        assertThrows(IllegalArgumentException.class, () -> registry.registerUnary('√', Math::sqrt));
+        assertThrows(IllegalArgumentException.class, () -> registry.unregister('!'));
+        assertThrows(NullValueException.class, () -> registry.registerUnary('a', null));
+        assertThrows(NullValueException.class, () -> new Calculator().setOperators(null));
+
+        assertThat(registry.unregister('%'), is(true));
+        assertThat(registry.unregister('%'), is(false));
+        registry.registerUnary('%', Math::abs);
+        assertThat(registry.getUnary('%').applyAsDouble(-2.0), is(2.0));
+    }
+}
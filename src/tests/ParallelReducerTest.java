@@ -0,0 +1,135 @@
+package tests;
+
+
+import calculators.Calculator;
+import calculators.ParallelReducer;
+import exceptions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.DoubleStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for ParallelReducer.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ParallelReducerTest {
+
+    private final ParallelReducer reducer = new ParallelReducer(ForkJoinPool.commonPool(), 64, false);
+    private final ParallelReducer compensatedReducer = new ParallelReducer(ForkJoinPool.commonPool(), 64, true);
+
+
+    /**
+     * Testing the sum and the product of arrays that are split into many parts.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testReduce() throws Exception{
+        double[] values = DoubleStream.iterate(1.0, v -> v + 1.0).limit(10_000).toArray();
+        assertThat(reducer.reduce(values, '+'), is(50_005_000.0));
+        assertThat(reducer.reduce(DoubleStream.of(values), '+'), is(50_005_000.0));
+
+        double[] factors = new double[1000];
+        java.util.Arrays.fill(factors, 1.0);
+        factors[10] = 2.0;
+        factors[700] = -4.0;
+        assertThat(reducer.reduce(factors, '*'), is(-8.0));
+
+        assertThat(reducer.reduce(new double[] {}, '+'), is(0.0));
+        assertThat(reducer.reduce(new double[] {}, '*'), is(1.0));
+    }
+
+
+    /**
+     * Testing that compensated summation keeps small values that plain summation loses.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testCompensatedSum() {
+        // Every group of four values adds up to 2.0, but 1e16 + 1.0 rounds back to 1e16.
+        double[] values = new double[1000];
+        for(int i = 0; i < values.length; i += 4) {
+            values[i] = 1.0;
+            values[i + 1] = 1e16;
+            values[i + 2] = 1.0;
+            values[i + 3] = -1e16;
+        }
+
+        double plain = 0.0;
+        for(double value : values) {
+            plain += value;
+        }
+
+        assertThat(plain, is(0.0));
+        assertThat(reducer.sum(values) == 500.0, is(false));
+        assertThat(compensatedReducer.sum(values), is(500.0));
+    }
+
+
+    /**
+     * Testing that compensated summation gives the same infinite sums as plain summation, not NaN.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testCompensatedSumOverflow() {
+        double[] overflow = new double[200];
+        java.util.Arrays.fill(overflow, 1e308);
+
+        double[][] inputs = {
+                {Double.POSITIVE_INFINITY, 1.0},
+                {1e308, 1e308},
+                {-1e308, -1e308, 1.0},
+                overflow,
+                {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY},
+                {Double.NaN, 1.0},
+        };
+
+        for(double[] values : inputs) {
+            assertThat(compensatedReducer.sum(values), is(reducer.sum(values)));
+        }
+        assertThat(compensatedReducer.sum(new double[] {1e308, 1e308}), is(Double.POSITIVE_INFINITY));
+        assertThat(compensatedReducer.sum(new double[] {-1e308, -1e308, 1.0}), is(Double.NEGATIVE_INFINITY));
+    }
+
+
+    /**
+     * Testing the method <b>Calculator.calculateParallel()</b>.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testCalculateParallel() throws Exception{
+        Calculator calculator = new Calculator();
+        calculator.setCurrentValue(10.0);
+
+        calculator.calculateParallel(new double[] {1.0, 2.0, 3.0}, '+');
+        assertThat(calculator.getCurrentValue(), is(16.0));
+
+        calculator.calculateParallel(new double[] {0.5, 4.0}, '*', compensatedReducer);
+        assertThat(calculator.getCurrentValue(), is(32.0));
+    }
+
+
+    /**
+     * Testing the methods with "bad" or invalid data.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testReduceBad() {
+        assertThrows(NotSupportedOperationException.class, () -> reducer.reduce(new double[] {1.0}, '-'));
+        assertThrows(NullValueException.class, () -> reducer.reduce((double[]) null, '+'));
+        assertThrows(NullValueException.class, () -> new Calculator().calculateParallel(new double[] {1.0}, '+', null));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelReducer(ForkJoinPool.commonPool(), 0, false));
+    }
+}
@@ -0,0 +1,157 @@
+package tests;
+
+
+import calculators.CalculatorAdvanced;
+import calculators.ResultCache;
+import exceptions.NullValueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for ResultCache.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class ResultCacheTest {
+
+    @AfterEach
+    void tearDown() throws Exception{
+        CalculatorAdvanced.setDefaultCache(null);
+    }
+
+
+    /**
+     * Testing that the least recently used result is evicted and that the counters are correct.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testEviction() {
+        ResultCache cache = new ResultCache(2);
+        cache.putBoolean('A', 1, true);
+        cache.putBoolean('P', 1, false);
+        assertThat(cache.getBoolean('A', 1), is(true));
+
+        cache.putBoolean('A', 2, false);
+        assertThat(cache.getBoolean('P', 1), is(nullValue()));
+        assertThat(cache.getBoolean('A', 1), is(true));
+        assertThat(cache.getBoolean('A', 2), is(false));
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getHits(), is(3L));
+        assertThat(cache.getMisses(), is(1L));
+        assertThat(cache.getEvictions(), is(1L));
+
+        cache.clear();
+        assertThat(cache.size(), is(0));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(0));
+    }
+
+
+    /**
+     * Testing that a big cache never holds more results than its maximum size.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testSegmentedSize() {
+        ResultCache cache = new ResultCache(ResultCache.SEGMENT_THRESHOLD);
+        for(long i = 0; i < 10 * ResultCache.SEGMENT_THRESHOLD; i++) {
+            cache.putBoolean('A', i, Boolean.FALSE);
+        }
+
+        assertThat(cache.size() <= cache.getMaxSize(), is(true));
+        assertThat(cache.getEvictions(), is(10L * ResultCache.SEGMENT_THRESHOLD - cache.size()));
+    }
+
+
+    /**
+     * Testing the cache used by one calculator and the default cache.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testCalculatorAdvancedCache() throws Exception{
+        ResultCache cache = new ResultCache(16);
+        CalculatorAdvanced calculatorAdvanced = new CalculatorAdvanced();
+        calculatorAdvanced.setCache(cache);
+
+        calculatorAdvanced.setCurrentValue(8128.0);
+        assertThat(calculatorAdvanced.hasCharacteristic('P'), is(true));
+        assertThat(calculatorAdvanced.hasCharacteristic('P'), is(true));
+        assertThat(calculatorAdvanced.hasCharacteristic('A'), is(false));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(2L));
+
+        calculatorAdvanced.setCurrentValue(30.0);
+        BigInteger factorial = calculatorAdvanced.calculateFactorialExact();
+        assertThat(calculatorAdvanced.calculateFactorialExact(), is(factorial));
+        assertThat(cache.getBigInteger('!', 30), is(factorial));
+
+        ResultCache defaultCache = new ResultCache(16);
+        CalculatorAdvanced.setDefaultCache(defaultCache);
+        CalculatorAdvanced other = new CalculatorAdvanced();
+        other.setCurrentValue(153.0);
+        assertThat(other.hasCharacteristic('A'), is(true));
+        assertThat(defaultCache.getBoolean('A', 153), is(true));
+    }
+
+
+    /**
+     * Testing that the results written by one cache are restored by a cache of another size, in the same order.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testState() throws Exception {
+        ResultCache cache = new ResultCache(4);
+        cache.putBoolean('A', 153, true);
+        cache.putBoolean('P', 7, false);
+        cache.putBigInteger('!', 30, new BigInteger("265252859812191058636308480000000"));
+        cache.getBoolean('A', 153);
+        assertThrows(NullValueException.class, () -> cache.putBigInteger('!', 31, null));
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        cache.writeTo(buffer);
+
+        ResultCache restored = new ResultCache(2);
+        restored.putBoolean('A', 1, true);
+        restored.readFrom(buffer.flip());
+
+        assertThat(restored.size(), is(2));
+        assertThat(restored.getBigInteger('!', 30), is(new BigInteger("265252859812191058636308480000000")));
+        assertThat(restored.getBoolean('!', 30), is(nullValue()));
+        assertThat(restored.getBoolean('A', 153), is(true));
+        assertThat(restored.getBoolean('P', 7), is(nullValue()));
+        assertThat(restored.getBoolean('A', 1), is(nullValue()));
+
+        buffer.put(0, (byte) 0).rewind();
+        assertThrows(IllegalArgumentException.class, () -> restored.readFrom(buffer));
+
+        ByteBuffer truncated = ByteBuffer.allocate(256);
+        cache.writeTo(truncated);
+        truncated.limit(truncated.position() - 1).rewind();
+        assertThrows(BufferUnderflowException.class, () -> restored.readFrom(truncated));
+
+        ByteBuffer unknown = ByteBuffer.allocate(64);
+        unknown.put(truncated.get(0)).putInt(1).putInt(2);
+        unknown.putChar('A').putLong(370).put((byte) 1);
+        unknown.putChar('A').putLong(371).put((byte) 7);
+        assertThrows(IllegalArgumentException.class, () -> restored.readFrom(unknown.flip()));
+
+        assertThat(restored.size(), is(2));
+        assertThat(restored.getBoolean('A', 153), is(true));
+        assertThat(restored.getBoolean('A', 370), is(nullValue()));
+    }
+}
@@ -0,0 +1,208 @@
+package tests;
+
+
+import calculators.Calculator;
+import calculators.LazyCalculator;
+import calculators.QuantileSketch;
+import calculators.RunningStatistics;
+import calculators.SlidingWindowStatistics;
+import calculators.TumblingWindowStatistics;
+import exceptions.NullValueException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Unit tests for RunningStatistics, SlidingWindowStatistics, TumblingWindowStatistics and QuantileSketch.
+ *
+ * @author Darijo Prerad
+ * @version 1.1
+ */
+public class StatisticsTest {
+
+    /**
+     * Testing the running statistics against a second pass, also when they are merged in parallel.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testRunningStatistics() {
+        double[] values = new Random(7).doubles(100_000, -1e6, 1e6).map(v -> v + 1e9).toArray();
+        double mean = Arrays.stream(values).sum() / values.length;
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / values.length;
+
+        RunningStatistics sequential = new RunningStatistics();
+        DoubleStream.of(values).forEach(sequential);
+        RunningStatistics parallel = DoubleStream.of(values).parallel()
+                .collect(RunningStatistics::new, RunningStatistics::accept, RunningStatistics::merge);
+
+        for(RunningStatistics statistics : new RunningStatistics[] {sequential, parallel}) {
+            assertThat(statistics.getCount(), is(100_000L));
+            assertThat(statistics.getMean(), closeTo(mean, 1e-3));
+            assertThat(statistics.getVariance(), closeTo(variance, variance * 1e-9));
+            assertThat(statistics.getSampleVariance(), closeTo(variance * 100_000 / 99_999, variance * 1e-9));
+            assertThat(statistics.getMin(), is(Arrays.stream(values).min().getAsDouble()));
+            assertThat(statistics.getMax(), is(Arrays.stream(values).max().getAsDouble()));
+        }
+
+        sequential.reset();
+        assertThat(sequential.getCount(), is(0L));
+        assertThat(sequential.getVariance(), is(0.0));
+        sequential.merge(parallel);
+        assertThat(sequential.getMean(), is(parallel.getMean()));
+    }
+
+
+    /**
+     * Testing that the sliding window gives the statistics of the last values only.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testSlidingWindow() {
+        Random random = new Random(11);
+        SlidingWindowStatistics window = new SlidingWindowStatistics(50);
+        List<Double> values = new ArrayList<>();
+
+        for(int i = 0; i < 1000; i++) {
+            double value = random.nextGaussian() * 100;
+            values.add(value);
+            window.accept(value);
+
+            List<Double> last = values.subList(Math.max(0, values.size() - 50), values.size());
+            double mean = last.stream().mapToDouble(Double::doubleValue).average().getAsDouble();
+            double variance = last.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum() / last.size();
+
+            assertThat(window.getCount(), is(last.size()));
+            assertThat(window.getMean(), closeTo(mean, 1e-9));
+            assertThat(window.getVariance(), closeTo(variance, 1e-6));
+            assertThat(window.getMin(), is(last.stream().mapToDouble(Double::doubleValue).min().getAsDouble()));
+            assertThat(window.getMax(), is(last.stream().mapToDouble(Double::doubleValue).max().getAsDouble()));
+        }
+
+        window.reset();
+        assertThat(window.getCount(), is(0));
+        assertThat(window.getMax(), is(Double.NEGATIVE_INFINITY));
+
+        SlidingWindowStatistics small = new SlidingWindowStatistics(3);
+        small.accept(1e17);
+        for(int i = 0; i < 10; i++) {
+            small.accept(1.0);
+        }
+        assertThat(small.getMean(), is(1.0));
+        assertThat(small.getVariance(), is(0.0));
+        assertThat(small.getMax(), is(1.0));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowStatistics(0));
+    }
+
+
+    /**
+     * Testing that the tumbling window passes every full window and the rest when it is flushed.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testTumblingWindow() throws Exception {
+        List<RunningStatistics> windows = new ArrayList<>();
+        TumblingWindowStatistics window = new TumblingWindowStatistics(10, windows::add);
+
+        for(int i = 1; i <= 25; i++) {
+            window.accept(i);
+        }
+        assertThat(windows.size(), is(2));
+        assertThat(windows.get(0).getMean(), is(5.5));
+        assertThat(windows.get(1).getMin(), is(11.0));
+        assertThat(window.getCurrent().getCount(), is(5L));
+
+        window.flush();
+        window.flush();
+        assertThat(windows.size(), is(3));
+        assertThat(windows.get(2).getMax(), is(25.0));
+
+        assertThrows(NullValueException.class, () -> new TumblingWindowStatistics(10, null));
+        assertThrows(IllegalArgumentException.class, () -> new TumblingWindowStatistics(0, windows::add));
+    }
+
+
+    /**
+     * Testing that the quantiles of the sketch are within the relative error, also after merging and collapsing.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testQuantileSketch() {
+        double[] values = new Random(3).doubles(50_000).map(v -> Math.exp(v * 20 - 5) * (v < 0.3 ? -1 : 1)).toArray();
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for(int i = 0; i < values.length; i++) {
+            (i % 2 == 0 ? first : second).accept(values[i]);
+        }
+        first.accept(0.0);
+        first.accept(Double.NaN);
+        first.merge(second);
+        assertThat(first.getCount(), is(50_001L));
+
+        double[] withZero = Arrays.copyOf(sorted, sorted.length + 1);
+        Arrays.sort(withZero);
+        for(double quantile : new double[] {0.01, 0.1, 0.25, 0.3, 0.5, 0.9, 0.99, 0.999}) {
+            double exact = withZero[(int) (quantile * (withZero.length - 1))];
+            double error = Math.abs(first.getValueAtQuantile(quantile) - exact) / Math.abs(exact);
+            assertThat(error, lessThanOrEqualTo(QuantileSketch.DEFAULT_RELATIVE_ERROR + 1e-12));
+        }
+        assertThat(first.getValueAtQuantile(0.0), is(sorted[0]));
+        assertThat(first.getValueAtQuantile(1.0), is(sorted[sorted.length - 1]));
+
+        QuantileSketch small = new QuantileSketch(0.01, 100);
+        for(int i = 1; i <= 1000; i++) {
+            small.accept(i);
+        }
+        double median = small.getValueAtQuantile(0.5);
+        assertThat(Math.abs(median - 500) / 500, lessThanOrEqualTo(0.01));
+
+        first.reset();
+        assertThat(Double.isNaN(first.getValueAtQuantile(0.5)), is(true));
+        assertThrows(IllegalArgumentException.class, () -> first.getValueAtQuantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new QuantileSketch(0.02, 10)));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.0, 10));
+    }
+
+
+    /**
+     * Testing that the operand observer receives the operands of successful operations only.
+     *
+     * @since 1.1
+     */
+    @Test
+    public void testOperandObserver() throws Exception {
+        RunningStatistics statistics = new RunningStatistics();
+        QuantileSketch sketch = new QuantileSketch();
+
+        for(Calculator calculator : new Calculator[] {new Calculator(), new LazyCalculator()}) {
+            calculator.setOperandObserver(statistics.andThen(sketch));
+            calculator.calculate(2.0, '+');
+            calculator.calculate(4.0, '*');
+            calculator.tryCalculate(0.0, '/');
+            calculator.tryCalculate(1.0, '%');
+            calculator.setOperandObserver(null);
+            calculator.calculate(100.0, '+');
+        }
+
+        assertThat(statistics.getCount(), is(4L));
+        assertThat(statistics.getMean(), is(3.0));
+        assertThat(sketch.getValueAtQuantile(1.0), is(4.0));
+    }
+}
@@ -1,5 +1,5 @@
 /**
-* Unit tests written for everything in <b>calculators</b>.
+* Unit tests written for everything in <b>calculators</b> and <b>service</b>.
 */
 
 package tests;
\ No newline at end of file